@@ -1,13 +1,13 @@
-import java.awt.Image;
-import java.io.File;
-import java.io.IOException;
-import java.util.Vector;
-
-import javax.imageio.ImageIO;
+import java.awt.Graphics;
 
 /**
  * This class manages the animation of game elements that are animated. 
  * 
+ * The frames are kept in an AnimationClip that is shared by every animation that plays them. An Animation only 
+ * stores how long it has been playing and if it is playing, so many of them can play the same clip at once for a few bytes each.
+ * 
+ * The frame that is shown depends on the time that has passed, not on the number of updates, so changing how often the 
+ * game is updated doesn't change how fast the animation plays.
  * 
  * @author Osher Cohen
  *
@@ -15,20 +15,14 @@ import javax.imageio.ImageIO;
 public class Animation {
 
     /**
-     * This is used to store the frames of the animation.
-     */
-    private Vector <Image> animationImages = new Vector<Image>();
-
-    /**
-     * This indicates how many frames should be skipped before switching
-     * to the next animation frame.
+     * This is the clip that holds the frames of the animation.
      */
-    private int frameSkip;
+    private final AnimationClip clip;
 
     /**
-     * This is used to indicate which animation frame is currently being displayed.
+     * This is the time (in nanoseconds) since the animation started playing, or last looped.
      */
-    private int currentFrame;
+    private long elapsed;
 
     /**
      * This indicates if the animation is playing
@@ -40,40 +34,25 @@ public class Animation {
      */
     private boolean isLooping = false;
 
-    /**
-     * This stores the amount of animation frames.
-     */
-    private int frameQuantity;
-
-	private int imageWidth;
-
-	private int imageHeight;
-    
     /**
      * Constructs the animation object which is used to store and control the animation.
      *
      * @param	fileName		The name of the sequence of frames in the animation
      * @param	frameQuantity	This is used to store the amount of frames in the animation
-     * @param	frameSkip		This indicates how many game frames should be skipped before switching to the next animation frame.
+     * @param	frameDuration	This indicates how long (in nanoseconds) each frame of the animation is shown for.
      * 
      */
-    public Animation(String fileName, int frameQuantity, int frameSkip ) {
-    	
-    	/**
-    	 * Store the frames of the animation in a vector.
-    	 */
-        for(int i = 0; i < frameQuantity; i++) {
-            try {
-                animationImages.add(ImageIO.read(new File(fileName + i + ".png")));
-            } catch (IOException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
-            }
-        }
-        this.frameSkip = frameSkip;
-        this.frameQuantity = frameQuantity;
-        this.imageWidth = animationImages.get(0).getWidth(null);
-        this.imageHeight = animationImages.get(0).getHeight(null);
+    public Animation(String fileName, int frameQuantity, long frameDuration ) {
+        this(AnimationClip.get(fileName, frameQuantity, frameDuration));
+    }
+
+    /**
+     * Constructs an animation that plays a clip.
+     * 
+     * @param	clip	The clip that holds the frames of the animation.
+     */
+    public Animation(AnimationClip clip) {
+        this.clip = clip;
     }
 
     /**
@@ -91,17 +70,16 @@ public class Animation {
     }
 
     /**
-     * This is used to return the image which represents the current frame of the animation.
-     * @return	Image	An Image object that is a reference to the image that represents the current frame of the animation.
+     * This is used to return the sprite which represents the current frame of the animation.
+     * @return	Sprite	A reference to the sprite that represents the current frame of the animation, or null if the animation isn't playing.
      */
-    public Image getImage() {
+    public Sprite getFrame() {
     	
        /** 
-        * If the animation is playing return the current animation frame. By dividing currentFrame by frameSkip,
-        * you change the animation frame every frameSkip amount of game frames.
+        * If the animation is playing return the frame for the time that has passed since it started.
     	*/
         if(isPlaying) {
-            return this.animationImages.get(currentFrame/frameSkip);
+            return this.clip.getFrameAt(elapsed);
             
         /**
          * Otherwise do not return anything.
@@ -112,29 +90,44 @@ public class Animation {
         
     }
 
+    /**
+     * This draws the current frame of the animation if it is playing.
+     * 
+     * @param graphics	The graphics to draw on.
+     * @param x			The x coordinate to draw the frame at.
+     * @param y			The y coordinate to draw the frame at.
+     */
+    public void draw(Graphics graphics, int x, int y) {
+        if(isPlaying) {
+            this.clip.getFrameAt(elapsed).draw(graphics, x, y);
+        }
+    }
+
     /**
      * This is used to update the state of the animation.
+     * 
+     * @param time	The time (in nanoseconds) that has passed since the last update.
      */
-    public void update() {
+    public void update(long time) {
     	/**
     	 * If the animation is playing ...
     	 */
         if(isPlaying) {
         	
         	/**
-        	 * ... then increment the frame to get to the next frame.
+        	 * ... then add the time that has passed.
         	 */
-            currentFrame++;
+            elapsed += time;
             
             /**
-             *  If the current frame's index is greater than the amount of frames, ...
+             *  If the animation has played for longer than the clip, ...
              */
-            if(currentFrame >= (frameQuantity * frameSkip) ) {
+            if(elapsed >= clip.getLength() ) {
             	
             	/**
-            	 * ... then reset the animation.
+            	 * ... then reset the animation. A looping animation keeps the time that has passed since the end of the clip.
             	 */
-                currentFrame = 0;
+                elapsed = isLooping ? elapsed % clip.getLength() : 0;
                 
                 /**
                  *  If the animation is not an animation that is supposed to loop, ...
@@ -160,12 +153,31 @@ public class Animation {
     	return this.isPlaying;
     }
     
+    /**
+     * This returns the clip the animation plays.
+     * 
+     * @return The clip the animation plays.
+     */
+    public AnimationClip getClip() {
+    	return this.clip;
+    }
+    
+    /**
+     * This returns the width of the animation's frames.
+     * 
+     * @return The width of the animation's frames.
+     */
     public int getWidth() {
-    	 return this.imageWidth;
+    	 return this.clip.getWidth();
      }
      
+    /**
+     * This returns the height of the animation's frames.
+     * 
+     * @return The height of the animation's frames.
+     */
     public int getHeight() {
-    	return this.imageHeight;
+    	return this.clip.getHeight();
     }
 
 }
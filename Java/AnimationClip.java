@@ -0,0 +1,134 @@
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This holds the frames of an animation and how long each one is shown. The length of a frame is a time, not a number 
+ * of game updates, so the animation plays at the same speed no matter how often the game is updated or drawn. A clip never changes after it is loaded, so one 
+ * clip is shared by every Animation that plays it; each Animation only keeps track of where it is in the clip.
+ * 
+ * Clips are loaded with get(), which loads each clip once and returns the same clip every time after that.
+ */
+public final class AnimationClip {
+
+    /**
+     * This stores the loaded clips by their file name, frame count and frame duration.
+     */
+    private static final ConcurrentHashMap<String, AnimationClip> clips = new ConcurrentHashMap<String, AnimationClip>();
+
+    /**
+     * This is used to store the frames of the animation.
+     */
+    private final Sprite [] frames;
+
+    /**
+     * This is how long each frame is shown for in nanoseconds.
+     */
+    private final long frameDuration;
+
+    /**
+     * These are the width and height of the first frame.
+     */
+    private final int width, height;
+
+    /**
+     * This loads the frames of a clip.
+     * 
+     * @param	fileName		The name of the sequence of frames in the animation. Frame i is stored in fileName + i + ".png".
+     * @param	frameQuantity	The amount of frames in the animation.
+     * @param	frameDuration	How long each frame is shown for in nanoseconds.
+     */
+    private AnimationClip(String fileName, int frameQuantity, long frameDuration) {
+        this.frames = new Sprite[frameQuantity];
+        for (int i = 0; i < frameQuantity; i++) {
+            this.frames[i] = SpriteCache.getAtlasSprite(fileName + i + ".png");
+        }
+        this.frameDuration = frameDuration;
+        this.width = frames[0].getWidth();
+        this.height = frames[0].getHeight();
+    }
+
+    /**
+     * This returns a clip, loading it the first time it is asked for.
+     * 
+     * @param	fileName		The name of the sequence of frames in the animation. Frame i is stored in fileName + i + ".png".
+     * @param	frameQuantity	The amount of frames in the animation.
+     * @param	frameDuration	How long each frame is shown for in nanoseconds.
+     * @return The clip.
+     */
+    public static AnimationClip get(String fileName, int frameQuantity, long frameDuration) {
+        String key = fileName + "#" + frameQuantity + "/" + frameDuration;
+        AnimationClip clip = clips.get(key);
+        if (clip == null) {
+            clip = new AnimationClip(fileName, frameQuantity, frameDuration);
+            AnimationClip loaded = clips.putIfAbsent(key, clip);
+            if (loaded != null) {
+                clip = loaded;	// Another thread loaded it first, so use that one.
+            }
+        }
+        return clip;
+    }
+
+    /**
+     * This returns a frame of the clip.
+     * 
+     * @param index	The index of the frame.
+     * @return The frame.
+     */
+    public Sprite getFrame(int index) {
+        return frames[index];
+    }
+
+    /**
+     * This returns the amount of frames in the clip.
+     * 
+     * @return The amount of frames.
+     */
+    public int getFrameQuantity() {
+        return frames.length;
+    }
+
+    /**
+     * This returns how long each frame is shown for.
+     * 
+     * @return The length of a frame in nanoseconds.
+     */
+    public long getFrameDuration() {
+        return frameDuration;
+    }
+
+    /**
+     * This returns the length of the clip.
+     * 
+     * @return The length of the clip in nanoseconds.
+     */
+    public long getLength() {
+        return frames.length * frameDuration;
+    }
+
+    /**
+     * This returns the frame that is showing a time after the clip started.
+     * 
+     * @param elapsed	The time since the clip started in nanoseconds. It must be less than getLength().
+     * @return The frame that is showing.
+     */
+    public Sprite getFrameAt(long elapsed) {
+        return frames[(int) (elapsed / frameDuration)];
+    }
+
+    /**
+     * This returns the width of the clip's frames.
+     * 
+     * @return The width of the first frame.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * This returns the height of the clip's frames.
+     * 
+     * @return The height of the first frame.
+     */
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,274 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * This keeps decoded images and sounds on disk, so later launches of the game don't have to decode and scale them again.
+ * 
+ * An image is kept as the raw ARGB pixels it has after it is scaled, and a sound as the samples it has after it is converted
+ * to the mixer's format. Each is stored in a file of its own in the cache directory (-Ddunkaprof.assetCache=cache, or an
+ * empty name to turn the cache off). The name of the file is made from a hash of the contents of the file the image or sound
+ * was loaded from, the version of the layout of the entries, and the size and scaling method or the format it was converted 
+ * to. So when a file, the layout or the way it is converted changes, its old entry is simply not used anymore.
+ * 
+ * Entries are read by mapping the file into memory with a FileChannel and copying the pixels or samples straight into the
+ * image's or sound's array. If an entry is missing or can't be read, the caller decodes the file as usual and writes the entry.
+ * Entries are written to a temporary file first and then moved into place, so a game that is loading on several threads
+ * (or two games started at once) never sees half of an entry.
+ */
+public final class AssetCache {
+
+    /**
+     * This is the directory the entries are kept in, or null if the cache is turned off.
+     */
+    private static final Path directory = getDirectory();
+
+    /**
+     * These are written at the start of every entry. The version is changed whenever the layout of an entry changes; it is 
+     * also part of the name of every entry, so entries of another version are never even opened.
+     */
+    private static final int MAGIC = 0x44415043, VERSION = 1;
+
+    /**
+     * This is the size in bytes of the part of an image entry that comes before the pixels: the magic number, the version, 
+     * the width, the height and the transparency.
+     */
+    private static final int IMAGE_HEADER = 5 * 4;
+
+    /**
+     * This is the size in bytes of the part of a sound entry that comes before the samples: the magic number, the version
+     * and the number of samples.
+     */
+    private static final int SOUND_HEADER = 3 * 4;
+
+    /**
+     * This stores the hashes of the files that were hashed by their file name, so each file is only hashed once.
+     */
+    private static final ConcurrentHashMap<String, String> hashes = new ConcurrentHashMap<String, String>();
+
+    /**
+     * This class only has static methods, so it can't be constructed.
+     */
+    private AssetCache() {
+    }
+
+    /**
+     * This returns the image that was stored for a file at the given size.
+     * 
+     * @param fileName	The file the image was loaded from.
+     * @param width		The width that was asked for when the image was stored (0 for the original width).
+     * @param height	The height that was asked for when the image was stored (0 for the original height).
+     * @param scaling	The name of the way the image was scaled, for example "bilinear".
+     * @return The image (TYPE_INT_ARGB, or TYPE_INT_RGB if it is opaque), or null if there isn't one.
+     */
+    public static BufferedImage readImage(String fileName, int width, int height, String scaling) {
+        Path entry = getEntry(fileName, width + "x" + height + "-" + scaling + ".argb");
+        if (entry == null) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(entry, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            data.order(ByteOrder.LITTLE_ENDIAN);
+            if (data.remaining() < IMAGE_HEADER || data.getInt() != MAGIC || data.getInt() != VERSION) {
+                return null;
+            }
+            int imageWidth = data.getInt();
+            int imageHeight = data.getInt();
+            int transparency = data.getInt();
+            if (imageWidth <= 0 || imageHeight <= 0 || data.remaining() != imageWidth * imageHeight * 4) {
+                return null;
+            }
+            BufferedImage image = new BufferedImage(imageWidth, imageHeight, 
+                                                    transparency == BufferedImage.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            data.asIntBuffer().get(((DataBufferInt) image.getRaster().getDataBuffer()).getData());
+            return image;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.out.println("Unable to read the cached image " + entry + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * This stores an image for a file at the given size.
+     * 
+     * @param fileName	The file the image was loaded from.
+     * @param width		The width that was asked for (0 for the original width).
+     * @param height	The height that was asked for (0 for the original height).
+     * @param scaling	The name of the way the image was scaled, for example "bilinear".
+     * @param image		The image. It must be a TYPE_INT_ARGB or TYPE_INT_RGB image.
+     */
+    public static void writeImage(String fileName, int width, int height, String scaling, BufferedImage image) {
+        Path entry = getEntry(fileName, width + "x" + height + "-" + scaling + ".argb");
+        if (entry == null) {
+            return;
+        }
+        int [] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        ByteBuffer data = ByteBuffer.allocate(IMAGE_HEADER + pixels.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(MAGIC).putInt(VERSION).putInt(image.getWidth()).putInt(image.getHeight()).putInt(image.getTransparency());
+        IntBuffer body = data.asIntBuffer();
+        body.put(pixels);
+        data.position(0);
+        write(entry, data);
+    }
+
+    /**
+     * This returns the samples that were stored for a sound file converted to a format.
+     * 
+     * @param fileName	The file the sound was loaded from.
+     * @param format	The format the sound was converted to. It must have 16 bit samples.
+     * @return The samples, or null if there aren't any.
+     */
+    public static short [] readSamples(String fileName, AudioFormat format) {
+        Path entry = getEntry(fileName, getName(format) + ".pcm");
+        if (entry == null) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(entry, StandardOpenOption.READ)) {
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            data.order(ByteOrder.LITTLE_ENDIAN);
+            if (data.remaining() < SOUND_HEADER || data.getInt() != MAGIC || data.getInt() != VERSION) {
+                return null;
+            }
+            int length = data.getInt();
+            if (length < 0 || data.remaining() != length * 2) {
+                return null;
+            }
+            short [] samples = new short[length];
+            data.asShortBuffer().get(samples);
+            return samples;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.out.println("Unable to read the cached sound " + entry + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * This stores the samples of a sound file converted to a format.
+     * 
+     * @param fileName	The file the sound was loaded from.
+     * @param format	The format the sound was converted to.
+     * @param samples	The samples.
+     */
+    public static void writeSamples(String fileName, AudioFormat format, short [] samples) {
+        Path entry = getEntry(fileName, getName(format) + ".pcm");
+        if (entry == null) {
+            return;
+        }
+        ByteBuffer data = ByteBuffer.allocate(SOUND_HEADER + samples.length * 2).order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(MAGIC).putInt(VERSION).putInt(samples.length);
+        data.asShortBuffer().put(samples);
+        data.position(0);
+        write(entry, data);
+    }
+
+    /**
+     * This writes an entry to a temporary file and then moves it into place.
+     * 
+     * @param entry	The entry's file.
+     * @param data	The contents of the entry.
+     */
+    private static void write(Path entry, ByteBuffer data) {
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            }
+            Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temporary = null;
+        } catch (IOException e) {
+            System.out.println("Unable to write the cache entry " + entry + ": " + e.getMessage());
+        } finally {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException e) {
+                    // The temporary file is left behind; it is never read.
+                }
+            }
+        }
+    }
+
+    /**
+     * This returns the file that holds the entry for a file converted in some way.
+     * 
+     * @param fileName	The file the image or sound was loaded from.
+     * @param suffix	Describes what the file was converted to.
+     * @return The entry's file, or null if the cache is turned off or the file can't be hashed.
+     */
+    private static Path getEntry(String fileName, String suffix) {
+        if (directory == null) {
+            return null;
+        }
+        String hash = hashes.get(fileName);
+        if (hash == null) {
+            hash = hash(fileName);
+            if (hash == null) {
+                return null;
+            }
+            hashes.put(fileName, hash);
+        }
+        return directory.resolve(hash + "-v" + VERSION + "-" + suffix);
+    }
+
+    /**
+     * This works out a hash of the contents of a file. A CRC-32 is used because the JVM computes it in native code, so it is 
+     * quick even while the game is starting up and nothing has been compiled yet (a SHA-1 of the background took longer than 
+     * decoding it). The length of the file is added to it to make it even less likely that two files get the same hash.
+     * 
+     * @param fileName	The file.
+     * @return The hash of the file, or null if the file can't be read.
+     */
+    private static String hash(String fileName) {
+        try {
+            byte [] contents = Files.readAllBytes(Paths.get(fileName));
+            CRC32 crc = new CRC32();
+            crc.update(contents, 0, contents.length);
+            return Long.toHexString(crc.getValue()) + "-" + contents.length;
+        } catch (IOException e) {
+            return null;	// The file will fail to load anyway, and that reports the problem.
+        }
+    }
+
+    /**
+     * This returns a name for an audio format that can be used in a file name.
+     * 
+     * @param format	The audio format.
+     * @return The sample rate, the number of channels and the sample size, for example "44100x2x16".
+     */
+    private static String getName(AudioFormat format) {
+        return Math.round(format.getSampleRate()) + "x" + format.getChannels() + "x" + format.getSampleSizeInBits();
+    }
+
+    /**
+     * This returns the directory chosen with -Ddunkaprof.assetCache.
+     * 
+     * @return The directory, or null if the cache is turned off.
+     */
+    private static Path getDirectory() {
+        String name = System.getProperty("dunkaprof.assetCache", "cache");
+        return name.isEmpty() ? null : Paths.get(name);
+    }
+}
@@ -0,0 +1,236 @@
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This loads the game's images, fonts and sounds in the background on a pool of worker threads, so the files are read and 
+ * decoded at the same time instead of one after another, and the event dispatch thread is free to draw a loading screen meanwhile.
+ * 
+ * Every load returns a Future. Images, fonts and sounds are put into the same caches the game objects load them from (SpriteCache,
+ * FontRegistry and the AudioEngine), so once the loads are done the game objects can be made on the event dispatch thread and every 
+ * image, font and sound they ask for is already there. If an object asks for something that wasn't loaded in advance, it is simply 
+ * loaded on the spot like it was before.
+ * 
+ * Each asset is only loaded once. The loads are kept by the asset they load (its kind, file and size), and asking for an
+ * asset that was already asked for returns the Future of the first load instead of decoding the file again at the same time.
+ */
+public class AssetManager {
+
+    /**
+     * These are the worker threads that load the files.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * This is the number of worker threads.
+     */
+    private final int threadCount;
+
+    /**
+     * These count the loads that were asked for and the loads that are finished (whether they worked or not).
+     */
+    private final AtomicInteger submitted = new AtomicInteger(), completed = new AtomicInteger();
+
+    /**
+     * This holds the load of each asset that was asked for, by a key made of its kind, file and size.
+     */
+    private final ConcurrentHashMap<String, Future<?>> loads = new ConcurrentHashMap<String, Future<?>>();
+
+    /**
+     * This constructs an asset manager with one worker thread for each processor.
+     */
+    public AssetManager() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * This constructs an asset manager.
+     * 
+     * @param threadCount	The number of worker threads that load the files.
+     */
+    public AssetManager(int threadCount) {
+        this.threadCount = Math.max(threadCount, 1);
+        this.workers = Executors.newFixedThreadPool(this.threadCount, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "Asset Loader " + count.incrementAndGet());
+                thread.setDaemon(true);	// Don't keep the game running just because of the loaders.
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * This loads an image in the background and keeps it in the SpriteCache.
+     * 
+     * @param fileName	The file which stores the image.
+     * @param width		The width the image is scaled to, or 0 to keep the original width.
+     * @param height	The height the image is scaled to, or 0 to keep the original height.
+     * @return The image, once it is loaded.
+     */
+    public Future<BufferedImage> loadImage(final String fileName, final int width, final int height) {
+        return submit("image:" + fileName + "@" + width + "x" + height, new Callable<BufferedImage>() {
+            @Override
+            public BufferedImage call() {
+                return SpriteCache.getSprite(fileName, width, height);
+            }
+        });
+    }
+
+    /**
+     * This loads an image in the background and packs it into the SpriteCache's atlas.
+     * 
+     * @param fileName	The file which stores the image.
+     * @param width		The width the image is scaled to, or 0 to keep the original width.
+     * @param height	The height the image is scaled to, or 0 to keep the original height.
+     * @return The sprite, once it is loaded.
+     */
+    public Future<Sprite> loadSprite(final String fileName, final int width, final int height) {
+        return submit("sprite:" + fileName + "@" + width + "x" + height, new Callable<Sprite>() {
+            @Override
+            public Sprite call() {
+                return SpriteCache.getAtlasSprite(fileName, width, height);
+            }
+        });
+    }
+
+    /**
+     * This loads the frames of an animation in the background. Each frame is loaded on its own, so the frames of 
+     * one animation are loaded at the same time too. AnimationClip.get() then finds all of them in the SpriteCache.
+     * 
+     * @param fileName		The name of the sequence of frames in the animation. Frame i is stored in fileName + i + ".png".
+     * @param frameQuantity	The amount of frames in the animation.
+     */
+    public void loadFrames(String fileName, int frameQuantity) {
+        for (int i = 0; i < frameQuantity; i++) {
+            loadSprite(fileName + i + ".png", 0, 0);
+        }
+    }
+
+    /**
+     * This decodes a sound in the background and keeps it in the AudioEngine.
+     * 
+     * @param fileName	The name of the sound file.
+     * @return The sound, once it is decoded.
+     */
+    public Future<AudioEngine.Sound> loadSound(final String fileName) {
+        return submit("sound:" + fileName, new Callable<AudioEngine.Sound>() {
+            @Override
+            public AudioEngine.Sound call() {
+                return AudioEngine.getInstance().load(fileName);
+            }
+        });
+    }
+
+    /**
+     * This opens the AudioEngine's line in the background.
+     * 
+     * @return True once the line is open, or false if sound can't be played.
+     */
+    public Future<Boolean> openAudio() {
+        return submit("audio", new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return AudioEngine.getInstance().open();
+            }
+        });
+    }
+
+    /**
+     * This loads a TrueType font in the background and keeps it in the FontRegistry.
+     * 
+     * @param fileName	The file which stores the font.
+     * @param size		The point size of the font.
+     * @return The font, once it is loaded, or null if it couldn't be loaded.
+     */
+    public Future<Font> loadFont(final String fileName, final float size) {
+        return submit("font:" + fileName + "@" + size, new Callable<Font>() {
+            @Override
+            public Font call() {
+                return FontRegistry.getFont(fileName, size);
+            }
+        });
+    }
+
+    /**
+     * This returns how much of the loading is done.
+     * 
+     * @return The fraction (from 0 to 1) of the loads that were asked for that are finished.
+     */
+    public float getProgress() {
+        int total = submitted.get();
+        return total == 0 ? 1f : (float) completed.get() / total;
+    }
+
+    /**
+     * This indicates if every load that was asked for is finished.
+     * 
+     * @return True if there is nothing left to load.
+     */
+    public boolean isDone() {
+        return completed.get() == submitted.get();
+    }
+
+    /**
+     * This returns the number of assets that were asked for. An asset that was asked for more than once is only counted once.
+     * 
+     * @return The number of loads.
+     */
+    public int getAssetCount() {
+        return submitted.get();
+    }
+
+    /**
+     * This returns the number of worker threads.
+     * 
+     * @return The number of worker threads.
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * This stops the worker threads once the loads that were asked for are finished. Nothing can be loaded afterwards.
+     */
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * This gives a load to the worker threads and counts it, unless the same asset was asked for already, in which case
+     * the load that was started first is returned.
+     * 
+     * @param key	The kind, file and size of the asset. Loads with the same key must give the same result.
+     * @param load	The load.
+     * @return The result of the load, once it is finished.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Future<T> submit(String key, final Callable<T> load) {
+        FutureTask<T> task = new FutureTask<T>(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                try {
+                    return load.call();
+                } finally {
+                    completed.incrementAndGet();
+                }
+            }
+        });
+        Future<?> existing = loads.putIfAbsent(key, task);
+        if (existing != null) {
+            return (Future<T>) existing;	// The key says what the result is, so it has the same type.
+        }
+        submitted.incrementAndGet();
+        workers.execute(task);
+        return task;
+    }
+}
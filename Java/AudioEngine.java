@@ -0,0 +1,749 @@
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * This plays all the sounds in the game through a single SourceDataLine.
+ * 
+ * The audio engine has its own thread (the mixer) which adds together everything that is playing, a small chunk at a time,
+ * and writes the result to the line. Sound effects are decoded into memory once, the first time they are loaded, and are played 
+ * by voices. A voice just remembers which sound it is playing and how far into it it is, so there is a fixed number of them
+ * and they are reused. When all the voices are busy, or a sound already has as many voices as it is allowed, the voice that
+ * started playing first is stolen.
+ * 
+ * The background music is not loaded into memory. It is streamed from its file by the mixer thread, one chunk at a time.
+ * 
+ * The voices and the music stream belong to the mixer thread, and nothing else touches them, so the mixer never holds a lock
+ * while it mixes or reads the music file. The game thread only adds the id of each sound it plays to a lock-free InputQueue,
+ * which the mixer empties at the start of every chunk, so playing a sound never waits for the mixer. Changing the music and 
+ * the volumes is handed over through a volatile field each.
+ * 
+ * Every sound is played on a channel (MUSIC or EFFECTS), and each channel has its own volume. No matter how many sounds are
+ * playing at once, the game only uses one line and the same amount of memory.
+ */
+public class AudioEngine {
+
+    /**
+     * This is the channel used for the background music.
+     */
+    public static final int MUSIC = 0;
+
+    /**
+     * This is the channel used for the sound effects.
+     */
+    public static final int EFFECTS = 1;
+
+    /**
+     * This is the format that everything is mixed in. All the sound files in the game are already in this format.
+     */
+    private static final AudioFormat MIXER_FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+
+    /**
+     * This is the number of frames (one sample for each speaker) mixed at a time. 1024 frames is about 23 milliseconds of sound.
+     */
+    private static final int CHUNK_FRAMES = 1024;
+
+    /**
+     * This is the number of chunks the line can hold. More chunks means the sound is less likely to skip but reacts later.
+     */
+    private static final int LINE_CHUNKS = 4;
+
+    /**
+     * This is the most sound effects that can play at the same time.
+     */
+    private static final int MAX_VOICES = 16;
+
+    /**
+     * This is the most voices a single sound can have, which is the most times it can be heard at once.
+     */
+    private static final int MAX_VOICES_PER_SOUND = 3;
+
+    /**
+     * This is the most sounds that can be waiting for the mixer to start playing them. The mixer takes them every chunk, so
+     * this is only reached if far more sounds are played in 23 milliseconds than there are voices; any more are dropped.
+     */
+    private static final int MAX_PENDING_SOUNDS = 64;
+
+    /**
+     * This is the audio engine used by the game.
+     */
+    private static AudioEngine instance = null;
+
+    /**
+     * This stores the sounds that have been loaded by their file name.
+     */
+    private final ConcurrentHashMap<String, Sound> sounds = new ConcurrentHashMap<String, Sound>();
+
+    /**
+     * This holds every sound that has been loaded at the index of its id. A new (longer) array is made whenever it is full, 
+     * so the mixer can read it without a lock.
+     */
+    private volatile Sound [] soundsById = new Sound[16];
+
+    /**
+     * This is the number of sounds that have been loaded. It is only changed while holding the lock on sounds.
+     */
+    private int soundCount = 0;
+
+    /**
+     * This holds the ids of the sounds that were played and haven't been started by the mixer yet. Only the game thread adds 
+     * to it and only the mixer thread takes from it.
+     */
+    private final InputQueue pendingSounds = new InputQueue(MAX_PENDING_SOUNDS);
+
+    /**
+     * These are the voices that play the sound effects. They are only used by the mixer thread.
+     */
+    private final Voice [] voices = new Voice[MAX_VOICES];
+
+    /**
+     * This is the volume of each channel, from 0 (silent) to 1 (full volume).
+     */
+    private volatile float musicGain = 1f, effectsGain = 1f;
+
+    /**
+     * This is the name of the music file the mixer should start streaming, or null if the music doesn't change.
+     */
+    private final AtomicReference<String> requestedMusic = new AtomicReference<String>();
+
+    /**
+     * This is the music that is being streamed, or null if there isn't any. It is only used by the mixer thread.
+     */
+    private Stream music = null;
+
+    /**
+     * This is the line that the mixed sound is written to.
+     */
+    private SourceDataLine line = null;
+
+    /**
+     * This is the mixer thread.
+     */
+    private Thread mixerThread = null;
+
+    /**
+     * This is set to false if the computer can't play sound or the engine has been closed, so the game stops trying.
+     */
+    private volatile boolean available = true;
+
+    /**
+     * This is set to true once the line is open and the mixer thread is running, so playing a sound doesn't have to take the lock in start().
+     */
+    private volatile boolean started = false;
+
+    /**
+     * This is set to true to ignore every sound that is played, for example when the game is simulated without a window.
+     */
+    private volatile boolean muted = false;
+
+    /**
+     * This is used to create the audio engine.
+     */
+    private AudioEngine() {
+        for (int i = 0; i < voices.length; i++) {
+            voices[i] = new Voice();
+        }
+    }
+
+    /**
+     * This returns the audio engine used by the game. It is created the first time this is called.
+     * 
+     * @return The audio engine.
+     */
+    public static synchronized AudioEngine getInstance() {
+        if (instance == null) {
+            instance = new AudioEngine();
+        }
+        return instance;
+    }
+
+    /**
+     * This loads a sound file into memory. The file is only decoded the first time it is loaded.
+     * 
+     * @param fileName	The name of the sound file.
+     * @return The sound, or null if the file couldn't be loaded.
+     */
+    public Sound load(String fileName) {
+        Sound sound = sounds.get(fileName);
+        if (sound == null) {
+            short [] samples = decode(fileName);
+            if (samples != null) {
+                sound = register(fileName, samples);
+            }
+        }
+        return sound;
+    }
+
+    /**
+     * This keeps a decoded sound and gives it the next id. If another thread loaded the same file first, its sound is used.
+     * 
+     * @param fileName	The name of the sound file.
+     * @param samples	The decoded sound in the mixer's format.
+     * @return The sound.
+     */
+    private Sound register(String fileName, short [] samples) {
+        synchronized (sounds) {
+            Sound sound = sounds.get(fileName);
+            if (sound == null) {
+                sound = new Sound(fileName, samples, soundCount);
+                Sound [] byId = soundsById;
+                if (soundCount == byId.length) {
+                    byId = Arrays.copyOf(byId, byId.length * 2);
+                }
+                byId[soundCount++] = sound;
+                soundsById = byId;	// Publishes the sound to the mixer before its id can be played.
+                sounds.put(fileName, sound);
+            }
+            return sound;
+        }
+    }
+
+    /**
+     * This reads a sound file and decodes all of it into memory. The decoded samples are taken from the AssetCache if they 
+     * were stored there on an earlier launch; otherwise they are stored there.
+     * 
+     * @param fileName	The name of the sound file.
+     * @return The decoded sound in the mixer's format, or null if the file couldn't be read.
+     */
+    private short [] decode(String fileName) {
+        short [] cached = AssetCache.readSamples(fileName, MIXER_FORMAT);
+        if (cached != null) {
+            return cached;
+        }
+
+        AudioInputStream audioStream = null;
+        try {
+            audioStream = openStream(fileName);
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            byte [] buffer = new byte[16384];
+            int read;
+            while ((read = audioStream.read(buffer)) != -1) {
+                data.write(buffer, 0, read);
+            }
+            short [] samples = new short[data.size() / 2];
+            ByteBuffer.wrap(data.toByteArray()).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(samples);
+            AssetCache.writeSamples(fileName, MIXER_FORMAT, samples);
+            return samples;
+        } catch (UnsupportedAudioFileException e) {
+            e.printStackTrace();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unable to convert " + fileName + " to " + MIXER_FORMAT);	// Thrown if the file can't be converted to the mixer's format.
+        } finally {
+            close(audioStream);
+        }
+        return null;
+    }
+
+    /**
+     * This opens a sound file as a stream in the mixer's format.
+     * 
+     * @param fileName	The name of the sound file.
+     * @return The stream of the sound file's samples in the mixer's format.
+     */
+    private static AudioInputStream openStream(String fileName) throws UnsupportedAudioFileException, IOException {
+        AudioInputStream audioStream = AudioSystem.getAudioInputStream(new File(fileName));
+        if (!audioStream.getFormat().matches(MIXER_FORMAT)) {
+            audioStream = AudioSystem.getAudioInputStream(MIXER_FORMAT, audioStream);
+        }
+        return audioStream;
+    }
+
+    /**
+     * This closes a stream and ignores any errors, since there is nothing that can be done about them.
+     * 
+     * @param audioStream	The stream to close. It can be null.
+     */
+    private static void close(AudioInputStream audioStream) {
+        if (audioStream != null) {
+            try {
+                audioStream.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * This plays a sound effect once on the EFFECTS channel.
+     * 
+     * @param sound	The sound to play.
+     */
+    public void play(Sound sound) {
+        if (sound != null) {
+            play(sound.getId());
+        }
+    }
+
+    /**
+     * This plays a sound effect once on the EFFECTS channel. The sound is handed to the mixer, which starts it at the beginning
+     * of its next chunk, so this never waits for the mixer. It must only be called from the game thread.
+     * 
+     * @param id	The id of the sound to play, from Sound.getId().
+     */
+    public void play(int id) {
+        if (muted || !available || (!started && !start())) {
+            return;
+        }
+        pendingSounds.offer(id);	// If the queue is full, the sound is dropped.
+    }
+
+    /**
+     * This returns how long a sound is.
+     * 
+     * @param id	The id of the sound, from Sound.getId().
+     * @return The length of the sound in nanoseconds, or 0 if there is no sound with the id.
+     */
+    public long getLength(int id) {
+        Sound [] byId = soundsById;
+        return id >= 0 && id < byId.length && byId[id] != null ? byId[id].getLength() : 0;
+    }
+
+    /**
+     * This streams a sound file on the MUSIC channel, looping it until the engine is closed or other music is streamed.
+     * The file is opened by the mixer thread.
+     * 
+     * @param fileName	The name of the sound file.
+     */
+    public void stream(String fileName) {
+        if (muted || !start()) {
+            return;
+        }
+        requestedMusic.set(fileName);
+    }
+
+    /**
+     * This opens the line and starts the mixer thread ahead of time, so the first sound that is played doesn't have to wait
+     * for it. Finding and opening a line can take a while, so this is best called from a thread other than the game's.
+     * 
+     * @return True if sound can be played.
+     */
+    public boolean open() {
+        return start();
+    }
+
+    /**
+     * This sets the volume of a channel.
+     * 
+     * @param channel	MUSIC or EFFECTS.
+     * @param gain		The volume, from 0 (silent) to 1 (full volume).
+     */
+    public void setGain(int channel, float gain) {
+        gain = Math.max(0f, Math.min(1f, gain));
+        if (channel == MUSIC) {
+            musicGain = gain;
+        } else {
+            effectsGain = gain;
+        }
+    }
+
+    /**
+     * This mutes or unmutes the engine. While the engine is muted, sounds that are played are ignored and 
+     * the line is not opened. Sounds can still be loaded.
+     * 
+     * @param muted	True to ignore every sound that is played.
+     */
+    public void setMuted(boolean muted) {
+        this.muted = muted;
+    }
+
+    /**
+     * This finds the voice that should play the sound. In order, it takes: the oldest voice of the sound if the sound already
+     * has as many voices as it can have, a voice that isn't playing, and finally the oldest voice of any sound.
+     * This is only called by the mixer thread.
+     * 
+     * @param sound	The sound to play.
+     * @return The voice that should play the sound.
+     */
+    private Voice findVoice(Sound sound) {
+        Voice oldestOfSound = null;
+        Voice free = null;
+        Voice oldest = voices[0];
+        int voicesOfSound = 0;
+        for (Voice voice : voices) {
+            if (voice.sound == null) {
+                if (free == null) {
+                    free = voice;
+                }
+                continue;
+            }
+            if (voice.sound == sound) {
+                voicesOfSound++;
+                if (oldestOfSound == null || voice.startTime - oldestOfSound.startTime < 0) {
+                    oldestOfSound = voice;
+                }
+            }
+            if (oldest.sound != null && voice.startTime - oldest.startTime < 0) {
+                oldest = voice;
+            }
+        }
+
+        if (voicesOfSound >= MAX_VOICES_PER_SOUND) {
+            return oldestOfSound;
+        } else if (free != null) {
+            return free;
+        } else {
+            return oldest;
+        }
+    }
+
+    /**
+     * This opens the line and starts the mixer thread the first time a sound is played.
+     * 
+     * @return True if sound can be played. False if there is no line that can play sound or the engine has been closed.
+     */
+    private synchronized boolean start() {
+        if (!available) {
+            return false;
+        }
+        if (line == null) {
+            try {
+                line = AudioSystem.getSourceDataLine(MIXER_FORMAT);
+                line.open(MIXER_FORMAT, CHUNK_FRAMES * MIXER_FORMAT.getFrameSize() * LINE_CHUNKS);
+                line.start();
+            } catch (LineUnavailableException e) {
+                e.printStackTrace();
+                available = false;
+                return false;
+            } catch (IllegalArgumentException e) {
+
+                /**
+                 * There is no line that can play the sound (for example, there is no sound card), so stop trying.
+                 */
+                System.out.println("Sound is not available: " + e.getMessage());
+                available = false;
+                return false;
+            }
+            mixerThread = new Thread(new Mixer(), "Audio Mixer");
+            mixerThread.setDaemon(true);	// Don't keep the game running just because of the mixer thread.
+            mixerThread.setPriority(Thread.MAX_PRIORITY);
+            mixerThread.start();
+            started = true;
+        }
+        return true;
+    }
+
+    /**
+     * This stops all the sounds, stops the mixer thread and closes the line. Any sounds played afterwards are ignored.
+     */
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            available = false;
+            thread = mixerThread;
+        }
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * The mixer thread. It mixes a chunk of sound at a time and writes it to the line until the engine is closed.
+     */
+    private class Mixer implements Runnable {
+
+        /**
+         * The sum of all the sounds for the current chunk, one value for each sample.
+         */
+        private final int [] mixBuffer = new int[CHUNK_FRAMES * MIXER_FORMAT.getChannels()];
+
+        /**
+         * The music read from its file for the current chunk.
+         */
+        private final byte [] streamBuffer = new byte[CHUNK_FRAMES * MIXER_FORMAT.getFrameSize()];
+
+        /**
+         * The mixed chunk in the line's format.
+         */
+        private final byte [] outputBuffer = new byte[CHUNK_FRAMES * MIXER_FORMAT.getFrameSize()];
+
+        @Override
+        public void run() {
+            while (available) {
+                startRequests();
+
+                Arrays.fill(mixBuffer, 0);
+                if (music != null) {
+                    music.mix(mixBuffer, streamBuffer, musicGain);
+                }
+                for (Voice voice : voices) {
+                    if (voice.sound != null) {
+                        voice.mix(mixBuffer, voice.channel == MUSIC ? musicGain : effectsGain);
+                    }
+                }
+
+                /**
+                 * Clip the sum to what fits in 16 bits and write it out little-endian.
+                 */
+                for (int i = 0; i < mixBuffer.length; i++) {
+                    int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mixBuffer[i]));
+                    outputBuffer[2 * i] = (byte) sample;
+                    outputBuffer[2 * i + 1] = (byte) (sample >> 8);
+                }
+
+                /**
+                 * This blocks until the line has room for the chunk, which is what keeps the mixer in step with the sound card.
+                 */
+                line.write(outputBuffer, 0, outputBuffer.length);
+            }
+
+            line.drain();
+            line.close();
+            if (music != null) {
+                music.close();
+                music = null;
+            }
+            for (Voice voice : voices) {
+                voice.sound = null;
+            }
+        }
+
+        /**
+         * This starts the sounds that were played since the last chunk, in the order they were played, and changes the music
+         * if other music was asked for.
+         */
+        private void startRequests() {
+            String musicFile = requestedMusic.getAndSet(null);
+            if (musicFile != null) {
+                if (music != null) {
+                    music.close();
+                }
+                music = new Stream(musicFile);
+            }
+
+            Sound [] byId = soundsById;
+            long now = System.nanoTime();
+            int id;
+            while ((id = pendingSounds.poll()) != InputQueue.EMPTY) {
+                if (id >= 0 && id < byId.length && byId[id] != null) {
+                    findVoice(byId[id]).start(byId[id], EFFECTS, now++);	// Each one is a little newer, so they are stolen in order.
+                }
+            }
+        }
+    }
+
+    /**
+     * A sound effect that has been decoded into memory.
+     */
+    public static class Sound {
+
+        /**
+         * The name of the file the sound was loaded from.
+         */
+        private final String fileName;
+
+        /**
+         * The decoded sound in the mixer's format. The samples for the left and right speakers alternate.
+         */
+        private final short [] samples;
+
+        /**
+         * The number the sound is played by. The sounds are numbered from 0 in the order they were loaded.
+         */
+        private final int id;
+
+        /**
+         * This creates a sound from decoded samples.
+         * 
+         * @param fileName	The name of the file the sound was loaded from.
+         * @param samples	The decoded sound in the mixer's format.
+         * @param id		The number the sound is played by.
+         */
+        private Sound(String fileName, short [] samples, int id) {
+            this.fileName = fileName;
+            this.samples = samples;
+            this.id = id;
+        }
+
+        /**
+         * This returns the number the sound is played by, which can be kept instead of the sound and given to AudioEngine.play(int).
+         * 
+         * @return The id of the sound.
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * This returns how long the sound is.
+         * 
+         * @return The length of the sound in nanoseconds.
+         */
+        public long getLength() {
+            long frames = samples.length / MIXER_FORMAT.getChannels();
+            return (long) (frames * (TimeUnit.SECONDS.toNanos(1) / (double) MIXER_FORMAT.getFrameRate()));
+        }
+
+        /**
+         * This returns the name of the file the sound was loaded from.
+         * 
+         * @return The name of the file the sound was loaded from.
+         */
+        public String getFileName() {
+            return fileName;
+        }
+    }
+
+    /**
+     * A voice plays one sound effect. It only stores which sound it is playing and how far into it it is.
+     */
+    private static class Voice {
+
+        /**
+         * The sound this voice is playing, or null if the voice is free.
+         */
+        private Sound sound;
+
+        /**
+         * The index of the next sample to mix.
+         */
+        private int position;
+
+        /**
+         * The channel the voice is playing on.
+         */
+        private int channel;
+
+        /**
+         * The value of System.nanoTime() when the voice was started. This is used to find the oldest voice.
+         */
+        private long startTime;
+
+        /**
+         * This starts (or restarts) the voice.
+         * 
+         * @param sound		The sound to play.
+         * @param channel	The channel to play it on.
+         * @param startTime	The current value of System.nanoTime().
+         */
+        private void start(Sound sound, int channel, long startTime) {
+            this.sound = sound;
+            this.channel = channel;
+            this.startTime = startTime;
+            this.position = 0;
+        }
+
+        /**
+         * This adds the next chunk of the sound to the mix. When the end of the sound is reached, the voice becomes free.
+         * 
+         * @param mixBuffer	The mix for the current chunk.
+         * @param gain		The volume of the voice's channel.
+         */
+        private void mix(int [] mixBuffer, float gain) {
+            int count = Math.min(mixBuffer.length, sound.samples.length - position);
+            for (int i = 0; i < count; i++) {
+                mixBuffer[i] += (int) (sound.samples[position + i] * gain);
+            }
+            position += count;
+            if (position >= sound.samples.length) {
+                sound = null;
+            }
+        }
+    }
+
+    /**
+     * A sound file that is streamed from its file a chunk at a time and loops forever.
+     */
+    private static class Stream {
+
+        /**
+         * The name of the sound file.
+         */
+        private final String fileName;
+
+        /**
+         * The open stream of the file, or null if it couldn't be opened.
+         */
+        private AudioInputStream audioStream;
+
+        /**
+         * This opens the sound file for streaming.
+         * 
+         * @param fileName	The name of the sound file.
+         */
+        private Stream(String fileName) {
+            this.fileName = fileName;
+            this.audioStream = open();
+        }
+
+        /**
+         * This opens the sound file from the beginning.
+         * 
+         * @return The stream of the sound file, or null if it couldn't be opened.
+         */
+        private AudioInputStream open() {
+            try {
+                return openStream(fileName);
+            } catch (UnsupportedAudioFileException e) {
+                e.printStackTrace();
+            } catch (IOException e) {
+                e.printStackTrace();
+            } catch (IllegalArgumentException e) {
+                System.out.println("Unable to convert " + fileName + " to " + MIXER_FORMAT);
+            }
+            return null;
+        }
+
+        /**
+         * This reads the next chunk of the file and adds it to the mix. When the end of the file is reached, the file is opened again.
+         * 
+         * @param mixBuffer		The mix for the current chunk.
+         * @param streamBuffer	A buffer to read the chunk into.
+         * @param gain			The volume of the music channel.
+         */
+        private void mix(int [] mixBuffer, byte [] streamBuffer, float gain) {
+            int filled = 0;
+            boolean reopened = false;
+            try {
+                while (audioStream != null && filled < streamBuffer.length) {
+                    int read = audioStream.read(streamBuffer, filled, streamBuffer.length - filled);
+                    if (read == -1) {
+                        if (reopened) {
+                            close();	// The file is empty, so there is nothing to loop.
+                        } else {
+                            AudioEngine.close(audioStream);
+                            audioStream = open();	// Loop back to the beginning.
+                            reopened = true;
+                        }
+                    } else if (read > 0) {
+                        filled += read;
+                        reopened = false;
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                close();
+            }
+            for (int i = 0; i < filled / 2; i++) {
+                short sample = (short) ((streamBuffer[2 * i] & 0xff) | (streamBuffer[2 * i + 1] << 8));
+                mixBuffer[i] += (int) (sample * gain);
+            }
+        }
+
+        /**
+         * This closes the file.
+         */
+        private void close() {
+            AudioEngine.close(audioStream);
+            audioStream = null;
+        }
+    }
+}
@@ -1,8 +1,5 @@
 import java.awt.Graphics;
 import java.awt.Image;
-import java.io.File;
-import java.io.IOException;
-import javax.imageio.ImageIO;
 /**
  * This class is used to manage the background image.  
  * This is used and set in the GamePanel class.
@@ -25,15 +22,11 @@ public class Background {
      * @param height		The height of the JPanel.
      */
     public Background(String fileName, int width, int height) {
-        try {
         	
-        	/**
-        	 * The background is resized to fill the JPanel
-        	 */
-            image = ( ImageIO.read(new File(fileName)) ).getScaledInstance(width, height, Image.SCALE_DEFAULT); // Read in the file and scale it
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        /**
+         * The background is resized to fill the JPanel
+         */
+        image = SpriteCache.getSprite(fileName, width, height); // Read in the file and scale it
     }
     
     
@@ -46,4 +39,16 @@ public class Background {
         graphics.drawImage(image, 0, 0, null);
 
     }  // end of draw()
+
+    /**
+     * This is used to draw the part of the background image that is inside a box.
+     * @param graphics	The Graphics object that represents JPanel's off-screen buffer.
+     * @param x			The x coordinate of the box.
+     * @param y			The y coordinate of the box.
+     * @param width		The width of the box.
+     * @param height	The height of the box.
+     */
+    public void draw(Graphics graphics, int x, int y, int width, int height) {
+        graphics.drawImage(image, x, y, x + width, y + height, x, y, x + width, y + height, null);
+    }
 }
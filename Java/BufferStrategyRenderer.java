@@ -0,0 +1,130 @@
+import java.awt.AWTException;
+import java.awt.BorderLayout;
+import java.awt.BufferCapabilities;
+import java.awt.Canvas;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.ImageCapabilities;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+import javax.swing.JPanel;
+
+/**
+ * This renderer displays the game on a Canvas using a BufferStrategy.
+ * 
+ * The BufferStrategy gives the Canvas a back buffer in video memory. When a frame is finished the back buffer is
+ * flipped to the front (or copied if the graphics card can't flip), so the frame doesn't have to be copied 
+ * by the CPU. Like a VolatileImage, the buffers can lose their contents at any time, which show() reports so 
+ * that the frame can be drawn again.
+ * 
+ * The buffers are asked to be flipped with FlipContents.COPIED, which leaves the frame that was just shown in the back
+ * buffer. If that isn't available, the default strategy is used. In a window it usually copies (blits) the back buffer 
+ * to the screen, which leaves the back buffer as it was as well. Either way the back buffer still holds the last frame, 
+ * so only the parts of the screen that changed are drawn. Only a strategy that really flips the buffers and leaves 
+ * anything else behind has to have every frame drawn in full.
+ * 
+ * The Canvas is placed inside the game panel and covers it completely, so the Canvas is the component that receives the keyboard input.
+ */
+public class BufferStrategyRenderer implements Renderer {
+
+    /**
+     * This is the number of buffers used. Two buffers means one is on the screen while the other is drawn to.
+     */
+    private static final int BUFFER_COUNT = 2;
+
+    /**
+     * This is the Canvas that the game is displayed on.
+     */
+    private Canvas canvas;
+
+    /**
+     * This is the BufferStrategy of the Canvas. It can only be created once the Canvas is on the screen.
+     */
+    private BufferStrategy strategy = null;
+
+    /**
+     * This indicates if the back buffer keeps the frame that was shown last, because the buffers are copied instead of flipped.
+     */
+    private boolean keepsContents = false;
+
+    /**
+     * This indicates if the last frame made it to the screen and the back buffer hasn't been lost since.
+     */
+    private boolean previousFrameValid = false;
+
+    @Override
+    public Component attach(JPanel panel) {
+        canvas = new Canvas();
+        canvas.setPreferredSize(panel.getPreferredSize());
+
+        /**
+         * The game draws the Canvas itself every frame, so it should ignore the paint requests it gets from the operating system.
+         */
+        canvas.setIgnoreRepaint(true);
+
+        panel.setLayout(new BorderLayout());
+        panel.add(canvas, BorderLayout.CENTER);
+        return canvas;
+    }
+
+    @Override
+    public Graphics getDrawGraphics() {
+        if (strategy == null) {
+            if (!canvas.isDisplayable()) {
+                return null;
+            }
+            createStrategy();
+        }
+        return strategy.getDrawGraphics();
+    }
+
+    /**
+     * This creates the BufferStrategy and finds out if its back buffer keeps the last frame.
+     */
+    private void createStrategy() {
+        try {
+            canvas.createBufferStrategy(BUFFER_COUNT, new BufferCapabilities(new ImageCapabilities(true), new ImageCapabilities(true), 
+                                                                            BufferCapabilities.FlipContents.COPIED));
+        } catch (AWTException e) {
+
+            /**
+             * Flipping with the contents copied isn't supported, so take whatever the Canvas would choose by itself.
+             */
+            canvas.createBufferStrategy(BUFFER_COUNT);
+        }
+        strategy = canvas.getBufferStrategy();
+        BufferCapabilities capabilities = strategy.getCapabilities();
+        keepsContents = !capabilities.isPageFlipping() || capabilities.getFlipContents() == BufferCapabilities.FlipContents.COPIED;
+        previousFrameValid = false;
+    }
+
+    /**
+     * The back buffer holds the last frame if the buffers are copied (either by a blit strategy or by flipping with
+     * FlipContents.COPIED), and the last frame was shown without the buffer being lost.
+     */
+    @Override
+    public boolean hasPreviousFrame() {
+        return keepsContents && previousFrameValid;
+    }
+
+    @Override
+    public boolean show() {
+
+        /**
+         * If the back buffer was lost and restored while the frame was being drawn, it now holds garbage, so the frame has to be drawn again.
+         */
+        if (strategy.contentsRestored()) {
+            previousFrameValid = false;
+            return false;
+        }
+        strategy.show();
+
+        /**
+         * Make sure the frame actually reaches the screen on systems that buffer drawing commands (like Linux).
+         */
+        Toolkit.getDefaultToolkit().sync();
+        previousFrameValid = !strategy.contentsLost();
+        return previousFrameValid;
+    }
+}
@@ -1,20 +1,15 @@
 import java.awt.Color;
 import java.awt.Font;
-import java.awt.FontFormatException;
 import java.awt.Graphics;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.io.File;
-import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
-import javax.swing.Timer;
-
 
 /**
  * This class is used to display and manage the player's time limit. 
- * This class uses the Watch class (Implemented below), which uses an ActionListener, to simulate
- * the 'ticking'or count down effect.
+ * The time left is counted down by the game instead of by a timer: every game update takes its length off the time left 
+ * (in advance()) while the clock is running. The clock follows the game's own time, so a game that is replayed or 
+ * simulated faster than real time runs out of time on the same update as the game that was played.
+ * The number of seconds that is shown is taken from it once per game update, so it only changes between frames.
  * 
  * @author Osher Cohen
  *
@@ -27,14 +22,25 @@ public class Clock  {
     private int timeLimit;
 
     /**
-     * This is used to store the font used for the clock.
+     * This is used to store the name of the font file used for the clock.
+     */
+    private String fileName;
+
+    /**
+     * This is the point size of the clock's font.
      */
-    private Font font;
+    private static final float FONT_SIZE = 36f;
 
     /**
-     * This is used to schedule a decrement of the time every second
+     * This is used to store the font used for the clock. It is taken from the FontRegistry the first time the clock is drawn,
+     * so a clock that is never drawn (in a headless simulation) never loads it.
      */
-    private Timer timer;
+    private Font font = null;
+
+    /**
+     * This indicates if the font has been loaded (or at least an attempt was made to load it).
+     */
+    private boolean fontLoaded = false;
 
     /**
      * This is used to store the x coordinate of the clock.
@@ -47,14 +53,44 @@ public class Clock  {
     private int yPosition;
     
     /**
-     * This is used to store the time left in milliseconds.
+     * This is used to store the time (in nanoseconds) that is left.
      */
-    private int timeInMilliseconds;
+    private long timeRemaining;
+
+    /**
+     * This indicates if the clock is running.
+     */
+    private boolean running = false;
 
     /**
      * Color object used to set color of the clock's text
      */
     private final Color color;
+
+    /**
+     * This is the number of seconds that is shown. It is updated every game update.
+     */
+    private long displayedSeconds;
+
+    /**
+     * This is the number of seconds that was shown on the last frame, or -1 if the clock hasn't been drawn yet.
+     */
+    private long drawnSeconds = -1;
+
+    /**
+     * This draws the "Time" part of the clock. It is made when the font is loaded.
+     */
+    private TextLabel label = null;
+
+    /**
+     * This draws the number of seconds. It is made when the font is loaded.
+     */
+    private DigitAtlas digits = null;
+
+    /**
+     * This remembers where the text of the clock was drawn on the last frame.
+     */
+    private final DirtyTracker tracker = new DirtyTracker();
     
     /**
      * This constructs a clock object which represents
@@ -66,25 +102,7 @@ public class Clock  {
      * 
      */
     public Clock(String fileName, int xPosition, int yPosition, int timeLimit) {
-        try {
-        	
-        	/**
-        	 * Create a font object from the font file
-        	 */
-            font = Font.createFont(Font.TRUETYPE_FONT, new File(fileName));
-            
-            /**
-             * Make the font size 36 point.
-             */
-            font = font.deriveFont(36f);
-        } catch (FontFormatException e) {
-        	
-            e.printStackTrace();
-            
-        } catch (IOException e) {
-            
-            e.printStackTrace();
-        }
+        this.fileName = fileName;
         this.xPosition = xPosition;
         this.yPosition = yPosition;
 	this.color = new Color(255, 247, 153);
@@ -94,19 +112,10 @@ public class Clock  {
         this.timeLimit = timeLimit + 1;
         
         /**
-         * One second is a thousand milliseconds.
-         */
-        this.timeInMilliseconds = this.timeLimit * 1000;
-        
-        /**
-         * Create an instance of the ActionListener Watch that will be used to decrement the timeLimit.
+         * The clock doesn't start running until resumeClock() is called.
          */
-        Watch watch = new Watch();
-        
-        /**
-         * Create a Timer that will tell the ActionListener Watch to perform its action (decrement the timer) every millisecond.
-         */
-        timer = new Timer(1,watch);
+        this.timeRemaining = TimeUnit.SECONDS.toNanos(this.timeLimit);
+        this.displayedSeconds = this.timeLimit;
     }
 
     /**
@@ -115,16 +124,47 @@ public class Clock  {
      * @param  graphics	A reference to the JPanel buffer
      */
     public void draw(Graphics graphics) {
+    	if (!fontLoaded) {
+    		loadFont();
+    		fontLoaded = true;
+    		label = new TextLabel("Time \t\t", font, this.color);
+    		digits = new DigitAtlas(font, this.color);
+    	}
     	
-    	/**
-    	 * Set the font which is to be used to draw the time limit to the screen.
-    	 */
-        graphics.setFont(font);
-        graphics.setColor(this.color);
         /**
-         * Draw the time limit to the JPanel's off-screen buffer.
+         * Draw the time limit to the JPanel's off-screen buffer. The text is only drawn into an image once, and the 
+         * number is put together from the images of its digits.
          */
-        graphics.drawString("Time \t\t" + TimeUnit.MILLISECONDS.toSeconds(timeInMilliseconds) + "", this.xPosition, this.yPosition);
+        label.draw(graphics, this.xPosition, this.yPosition);
+        digits.draw(graphics, displayedSeconds, this.xPosition + label.getWidth(), this.yPosition);
+    }
+
+    /**
+     * This adds the place where the clock's text was drawn last frame and where it will be drawn this frame to the region 
+     * that has to be drawn again, if the time that is shown changed.
+     * 
+     * @param region	The parts of the screen that have to be drawn again.
+     */
+    public void markDirty(DirtyRegion region) {
+    	if (label == null || !label.isRendered() || !digits.isRendered()) {
+    		
+    		/**
+    		 * The clock hasn't been drawn yet, so the size of its text isn't known.
+    		 */
+    		region.markAll();
+    	} else if (displayedSeconds != drawnSeconds) {
+    		tracker.track(region, this.xPosition - TextLabel.PADDING, this.yPosition - label.getAscent(), 
+    		              label.getWidth() + digits.getWidth(displayedSeconds) + 2 * TextLabel.PADDING, label.getHeight());
+    		drawnSeconds = displayedSeconds;
+    	}
+    }
+
+    /**
+     * This gets the font used for the clock. The game panel uses the same font file at the same size, so the font is 
+     * usually loaded already.
+     */
+    private void loadFont() {
+        font = FontRegistry.getFont(fileName, FONT_SIZE);
     }
 
     /**
@@ -137,46 +177,53 @@ public class Clock  {
     }
 
     /**
-     * This method stops the clock.
+     * This method stops the clock. advance() doesn't take any time off it until it is resumed, so the time left stays 
+     * what it was after the last update.
+     * 
+     * The clock is only used on the game thread: pausing and resuming the game reach it through the InputQueue between 
+     * two updates, so none of its methods need a lock.
      */
     public void stopClock() {
-        timer.stop();
+        running = false;
     }
 
     /**
      * This method allows you to resume the clock from where it left of when you stopped it.
      */
     public void resumeClock() {
-        timer.start();
+        if(!running && timeRemaining > 0) {
+            running = true;
+        }
+    }
+
+    /**
+     * This returns the time left in nanoseconds.
+     * 
+     * @return The time left in nanoseconds. This is never less than zero.
+     */
+    public long getTimeRemaining() {
+        return timeRemaining;
     }
     
     /**
-     * This is used to check if the player's time limit has run out
-     * @return True if the player has run out of time. Otherwise it returns false.
+     * This is called every game update. It counts down the clock if it is running and takes the number of seconds that is 
+     * shown from the time left.
+     * 
+     * @param nanoseconds	The amount of time that has passed in the game.
      */
-    public boolean outOfTime() {
-        return TimeUnit.MILLISECONDS.toSeconds(timeInMilliseconds) <= 0;
+    public void advance(long nanoseconds) {
+        if(running) {
+            timeRemaining = Math.max(timeRemaining - nanoseconds, 0);
+        }
+        displayedSeconds = TimeUnit.NANOSECONDS.toSeconds(timeRemaining);
     }
     
     /**
-     * Watch is an ActionListener that decrements the time whenever the timer tells it to (every millisecond).
-     * @author Osher Cohen
-     *
+     * This is used to check if the player's time limit has run out
+     * @return True if the player has run out of time. Otherwise it returns false.
      */
-    private class Watch implements ActionListener {
-
-		@Override
-		/**
-		 * Actions that the ActionListen will perform are placed here. More specifically, this will decrement the time in milliseconds.
-		 * If the time in milliseconds is less than zero, then this stops the clock.
-		 */
-		public void actionPerformed(ActionEvent e) {
-			Clock.this.timeInMilliseconds-= 1;
-			if(Clock.this.timeInMilliseconds <= 0) {
-				Clock.this.stopClock();
-			}
-		}
-		
+    public boolean outOfTime() {
+        return TimeUnit.NANOSECONDS.toSeconds(getTimeRemaining()) <= 0;
     }
    
 }
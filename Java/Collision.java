@@ -0,0 +1,53 @@
+/**
+ * This class has the collision tests used by the game. They work directly on the coordinates of the boxes and lines 
+ * instead of on Rectangle and Line2D objects, so the game doesn't have to create any objects to test for collisions.
+ * 
+ * The tests give the same results as Rectangle.intersects() and Rectangle.intersectsLine().
+ */
+public final class Collision {
+
+    /**
+     * This class only has static methods, so it can't be constructed.
+     */
+    private Collision() {
+    }
+
+    /**
+     * This is used to test if two boxes overlap. Boxes that only touch at their edges don't overlap, and a box with no width or height never overlaps anything.
+     * 
+     * @param x1		The x coordinate of the first box.
+     * @param y1		The y coordinate of the first box.
+     * @param width1	The width of the first box.
+     * @param height1	The height of the first box.
+     * @param x2		The x coordinate of the second box.
+     * @param y2		The y coordinate of the second box.
+     * @param width2	The width of the second box.
+     * @param height2	The height of the second box.
+     * @return True if the boxes overlap.
+     */
+    public static boolean intersects(int x1, int y1, int width1, int height1, int x2, int y2, int width2, int height2) {
+        if (width1 <= 0 || height1 <= 0 || width2 <= 0 || height2 <= 0) {
+            return false;
+        }
+        return x1 < x2 + width2 && x2 < x1 + width1 && y1 < y2 + height2 && y2 < y1 + height1;
+    }
+
+    /**
+     * This is used to test if a box crosses a horizontal line. The edges of the box count as part of it.
+     * 
+     * @param x			The x coordinate of the box.
+     * @param y			The y coordinate of the box.
+     * @param width		The width of the box.
+     * @param height	The height of the box.
+     * @param lineX1	The x coordinate of the left end of the line.
+     * @param lineX2	The x coordinate of the right end of the line.
+     * @param lineY		The y coordinate of the line.
+     * @return True if the line crosses or touches the box.
+     */
+    public static boolean intersectsHorizontalLine(int x, int y, int width, int height, int lineX1, int lineX2, int lineY) {
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        return lineY >= y && lineY <= y + height && lineX1 <= x + width && lineX2 >= x;
+    }
+}
@@ -0,0 +1,289 @@
+import java.util.Arrays;
+
+/**
+ * This is a uniform grid over the playing field that is used to find which projectiles hit which targets without testing 
+ * every projectile against every target.
+ * 
+ * The field is divided into square cells. Targets don't move, so they are added once and each cell keeps a list of the targets
+ * that overlap it. Projectiles move every update, so they are cleared and added again every update. Only a projectile and a 
+ * target that share a cell are tested against each other, so the cost of finding the hits depends on how many projectiles are 
+ * near targets instead of on the number of projectiles times the number of targets.
+ * 
+ * A projectile and a target that overlap several of the same cells are only reported once: in the cell that holds the top left 
+ * corner of the area where they overlap.
+ * 
+ * All the lists are kept in arrays of ints that only grow when more room is needed, so using the grid doesn't create any objects
+ * once it has grown to its working size.
+ */
+public class CollisionGrid {
+
+    /**
+     * The width and height of a cell.
+     */
+    private final int cellSize;
+
+    /**
+     * The number of columns and rows of cells.
+     */
+    private final int columns, rows;
+
+    /**
+     * The bounding boxes of the targets.
+     */
+    private int [] targetX = new int[8], targetY = new int[8], targetWidth = new int[8], targetHeight = new int[8];
+
+    /**
+     * The number of targets.
+     */
+    private int targetCount = 0;
+
+    /**
+     * The targets in each cell. The targets in cell c are cellTargets[cellTargetStart[c]] up to cellTargets[cellTargetStart[c + 1] - 1].
+     */
+    private int [] cellTargetStart, cellTargets = new int[0];
+
+    /**
+     * This indicates that targets were added and the lists of targets in each cell have to be built again.
+     */
+    private boolean targetsChanged = false;
+
+    /**
+     * The ids and bounding boxes of the projectiles added since the last clear.
+     */
+    private int [] projectileId = new int[8], projectileX = new int[8], projectileY = new int[8], projectileWidth = new int[8], projectileHeight = new int[8];
+
+    /**
+     * The number of projectiles added since the last clear.
+     */
+    private int projectileCount = 0;
+
+    /**
+     * The first entry of the list of projectiles in each cell, or -1 if there are none.
+     */
+    private final int [] cellFirstEntry;
+
+    /**
+     * The projectile (its index in the projectile arrays) and the next entry in the same cell (or -1) for each entry.
+     */
+    private int [] entryProjectile = new int[32], entryNext = new int[32];
+
+    /**
+     * The number of entries.
+     */
+    private int entryCount = 0;
+
+    /**
+     * The cells that have projectiles in them, so only those are looked at and cleared.
+     */
+    private final int [] occupiedCells;
+
+    /**
+     * The number of cells that have projectiles in them.
+     */
+    private int occupiedCount = 0;
+
+    /**
+     * This creates a grid over a field.
+     * 
+     * @param width		The width of the field.
+     * @param height	The height of the field.
+     * @param cellSize	The width and height of a cell. Cells should be about as big as the targets.
+     */
+    public CollisionGrid(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        this.columns = (width + cellSize - 1) / cellSize;
+        this.rows = (height + cellSize - 1) / cellSize;
+        this.cellTargetStart = new int[columns * rows + 1];
+        this.cellFirstEntry = new int[columns * rows];
+        this.occupiedCells = new int[columns * rows];
+        Arrays.fill(cellFirstEntry, -1);
+    }
+
+    /**
+     * This adds a target. Targets don't move, so they are only added once.
+     * 
+     * @param x			The x coordinate of the target.
+     * @param y			The y coordinate of the target.
+     * @param width		The width of the target.
+     * @param height	The height of the target.
+     * @return The id of the target. Targets are numbered 0, 1, 2 and so on in the order they are added.
+     */
+    public int addTarget(int x, int y, int width, int height) {
+        if (targetCount == targetX.length) {
+            targetX = Arrays.copyOf(targetX, targetCount * 2);
+            targetY = Arrays.copyOf(targetY, targetCount * 2);
+            targetWidth = Arrays.copyOf(targetWidth, targetCount * 2);
+            targetHeight = Arrays.copyOf(targetHeight, targetCount * 2);
+        }
+        targetX[targetCount] = x;
+        targetY[targetCount] = y;
+        targetWidth[targetCount] = width;
+        targetHeight[targetCount] = height;
+        targetsChanged = true;
+        return targetCount++;
+    }
+
+    /**
+     * This returns the number of targets.
+     * 
+     * @return The number of targets.
+     */
+    public int getTargetCount() {
+        return targetCount;
+    }
+
+    /**
+     * This removes all the projectiles. It is called at the start of every update before the projectiles are added again.
+     */
+    public void clearProjectiles() {
+        for (int i = 0; i < occupiedCount; i++) {
+            cellFirstEntry[occupiedCells[i]] = -1;
+        }
+        occupiedCount = 0;
+        entryCount = 0;
+        projectileCount = 0;
+    }
+
+    /**
+     * This adds a projectile to every cell it overlaps.
+     * 
+     * @param id		The id of the projectile. This is what is reported when the projectile hits a target.
+     * @param x			The x coordinate of the projectile.
+     * @param y			The y coordinate of the projectile.
+     * @param width		The width of the projectile.
+     * @param height	The height of the projectile.
+     */
+    public void addProjectile(int id, int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (projectileCount == projectileId.length) {
+            int capacity = projectileCount * 2;
+            projectileId = Arrays.copyOf(projectileId, capacity);
+            projectileX = Arrays.copyOf(projectileX, capacity);
+            projectileY = Arrays.copyOf(projectileY, capacity);
+            projectileWidth = Arrays.copyOf(projectileWidth, capacity);
+            projectileHeight = Arrays.copyOf(projectileHeight, capacity);
+        }
+        int projectile = projectileCount++;
+        projectileId[projectile] = id;
+        projectileX[projectile] = x;
+        projectileY[projectile] = y;
+        projectileWidth[projectile] = width;
+        projectileHeight[projectile] = height;
+
+        int lastColumn = column(x + width - 1);
+        int lastRow = row(y + height - 1);
+        for (int row = row(y); row <= lastRow; row++) {
+            for (int column = column(x); column <= lastColumn; column++) {
+                int cell = row * columns + column;
+                if (entryCount == entryProjectile.length) {
+                    entryProjectile = Arrays.copyOf(entryProjectile, entryCount * 2);
+                    entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+                }
+                if (cellFirstEntry[cell] == -1) {
+                    occupiedCells[occupiedCount++] = cell;
+                }
+                entryProjectile[entryCount] = projectile;
+                entryNext[entryCount] = cellFirstEntry[cell];
+                cellFirstEntry[cell] = entryCount++;
+            }
+        }
+    }
+
+    /**
+     * This finds the projectiles that overlap targets. Every overlapping projectile and target is reported once, as long as there is
+     * room for it in the arrays.
+     * 
+     * @param hitProjectiles	This is filled with the ids of the projectiles that hit a target.
+     * @param hitTargets		This is filled with the ids of the targets they hit, in the same order.
+     * @return The number of hits that were put in the arrays.
+     */
+    public int findCollisions(int [] hitProjectiles, int [] hitTargets) {
+        if (targetsChanged) {
+            buildTargetCells();
+        }
+        int hits = 0;
+        int limit = Math.min(hitProjectiles.length, hitTargets.length);
+        for (int i = 0; i < occupiedCount; i++) {
+            int cell = occupiedCells[i];
+            int targetsStart = cellTargetStart[cell];
+            int targetsEnd = cellTargetStart[cell + 1];
+            if (targetsStart == targetsEnd) {
+                continue;
+            }
+            for (int entry = cellFirstEntry[cell]; entry != -1; entry = entryNext[entry]) {
+                int projectile = entryProjectile[entry];
+                int x = projectileX[projectile];
+                int y = projectileY[projectile];
+                for (int j = targetsStart; j < targetsEnd; j++) {
+                    int target = cellTargets[j];
+                    if (Collision.intersects(x, y, projectileWidth[projectile], projectileHeight[projectile],
+                            targetX[target], targetY[target], targetWidth[target], targetHeight[target])) {
+
+                        /**
+                         * Only report the hit in the cell where the overlapping area starts, so it isn't reported once for every shared cell.
+                         */
+                        int overlapX = Math.max(x, targetX[target]);
+                        int overlapY = Math.max(y, targetY[target]);
+                        if (row(overlapY) * columns + column(overlapX) == cell && hits < limit) {
+                            hitProjectiles[hits] = projectileId[projectile];
+                            hitTargets[hits] = target;
+                            hits++;
+                        }
+                    }
+                }
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * This builds the lists of targets in each cell.
+     */
+    private void buildTargetCells() {
+        int cells = columns * rows;
+        int [] counts = new int[cells];
+        for (int target = 0; target < targetCount; target++) {
+            for (int row = row(targetY[target]); row <= row(targetY[target] + targetHeight[target] - 1); row++) {
+                for (int column = column(targetX[target]); column <= column(targetX[target] + targetWidth[target] - 1); column++) {
+                    counts[row * columns + column]++;
+                }
+            }
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            cellTargetStart[cell + 1] = cellTargetStart[cell] + counts[cell];
+        }
+        cellTargets = new int[cellTargetStart[cells]];
+        Arrays.fill(counts, 0);
+        for (int target = 0; target < targetCount; target++) {
+            for (int row = row(targetY[target]); row <= row(targetY[target] + targetHeight[target] - 1); row++) {
+                for (int column = column(targetX[target]); column <= column(targetX[target] + targetWidth[target] - 1); column++) {
+                    int cell = row * columns + column;
+                    cellTargets[cellTargetStart[cell] + counts[cell]++] = target;
+                }
+            }
+        }
+        targetsChanged = false;
+    }
+
+    /**
+     * This returns the column that an x coordinate is in. Coordinates outside the field are put in the closest column.
+     * 
+     * @param x	The x coordinate.
+     * @return The column.
+     */
+    private int column(int x) {
+        return Math.max(0, Math.min(columns - 1, Math.floorDiv(x, cellSize)));
+    }
+
+    /**
+     * This returns the row that a y coordinate is in. Coordinates outside the field are put in the closest row.
+     * 
+     * @param y	The y coordinate.
+     * @return The row.
+     */
+    private int row(int y) {
+        return Math.max(0, Math.min(rows - 1, Math.floorDiv(y, cellSize)));
+    }
+}
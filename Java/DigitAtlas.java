@@ -0,0 +1,163 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * This draws numbers (the score and the time left) by copying the images of their digits. The ten digits are drawn 
+ * into one image the first time a number is drawn, so after that a number that changes every second is drawn without 
+ * making a new String or working out the shape of any letters.
+ * 
+ * A number drawn with an atlas lines up with the same number drawn with drawString(), since each digit is placed by 
+ * the width the font gives it.
+ */
+public class DigitAtlas {
+
+    /**
+     * This is the space left to the left and right of each digit in the image, for digits that reach past their width.
+     */
+    private static final int PADDING = TextLabel.PADDING;
+
+    /**
+     * This is the font of the digits, or null to use the font of the Graphics object the atlas is first drawn with.
+     */
+    private final Font font;
+
+    /**
+     * This is the color of the digits.
+     */
+    private final Color color;
+
+    /**
+     * This is the image that holds the ten digits, or null if it hasn't been made yet.
+     */
+    private BufferedImage image = null;
+
+    /**
+     * These are the width of each digit and the x coordinate of its cell in the image.
+     */
+    private final int [] digitWidth = new int[10], cellX = new int[10];
+
+    /**
+     * This is the distance from the top of the image to the baseline of the digits.
+     */
+    private int ascent;
+
+    /**
+     * This is the height of the image.
+     */
+    private int cellHeight;
+
+    /**
+     * This creates an atlas.
+     * 
+     * @param font	The font of the digits, or null to use the font of the Graphics object the atlas is first drawn with.
+     * @param color	The color of the digits.
+     */
+    public DigitAtlas(Font font, Color color) {
+        this.font = font;
+        this.color = color;
+    }
+
+    /**
+     * This draws a number.
+     * 
+     * @param graphics	The Graphics object to draw with.
+     * @param value		The number. It must not be negative.
+     * @param x			The x coordinate of the start of the number.
+     * @param y			The y coordinate of the baseline of the number, the same as for drawString().
+     */
+    public void draw(Graphics graphics, long value, int x, int y) {
+        if (image == null) {
+            render(graphics);
+        }
+
+        /**
+         * The digits are found from the last one to the first, so they are drawn from the right end of the number.
+         */
+        int right = x + getWidth(value);
+        do {
+            int digit = (int) (value % 10);
+            right -= digitWidth[digit];
+            int sx = cellX[digit];
+            int cellWidth = digitWidth[digit] + 2 * PADDING;
+            graphics.drawImage(image, right - PADDING, y - ascent, right - PADDING + cellWidth, y - ascent + cellHeight,
+                               sx, 0, sx + cellWidth, cellHeight, null);
+            value /= 10;
+        } while (value > 0);
+    }
+
+    /**
+     * This draws the ten digits into the image.
+     * 
+     * @param graphics	The Graphics object the atlas is drawn with. It is used to measure the digits.
+     */
+    private void render(Graphics graphics) {
+        FontMetrics metrics = graphics.getFontMetrics(font != null ? font : graphics.getFont());
+        int imageWidth = 0;
+        for (int digit = 0; digit < 10; digit++) {
+            digitWidth[digit] = metrics.charWidth((char) ('0' + digit));
+            cellX[digit] = imageWidth;
+            imageWidth += digitWidth[digit] + 2 * PADDING;
+        }
+        ascent = metrics.getMaxAscent();
+        cellHeight = metrics.getMaxAscent() + metrics.getMaxDescent();
+
+        image = SpriteCache.createCompatibleImage(imageWidth, cellHeight, Transparency.TRANSLUCENT);
+        Graphics2D imageGraphics = image.createGraphics();
+        imageGraphics.setFont(metrics.getFont());
+        imageGraphics.setColor(color);
+        char [] digits = { '0' };
+        for (int digit = 0; digit < 10; digit++) {
+            digits[0] = (char) ('0' + digit);
+            imageGraphics.drawChars(digits, 0, 1, cellX[digit] + PADDING, ascent);
+        }
+        imageGraphics.dispose();
+    }
+
+    /**
+     * This indicates if the atlas has been drawn, so that the size of the digits is known.
+     * 
+     * @return True if the atlas has been drawn.
+     */
+    public boolean isRendered() {
+        return image != null;
+    }
+
+    /**
+     * This returns the width of a number. The images of the digits reach PADDING pixels past both ends of it.
+     * It is only known once the atlas has been drawn.
+     * 
+     * @param value	The number. It must not be negative.
+     * @return The width of the number.
+     */
+    public int getWidth(long value) {
+        int width = 0;
+        do {
+            width += digitWidth[(int) (value % 10)];
+            value /= 10;
+        } while (value > 0);
+        return width;
+    }
+
+    /**
+     * This returns the distance from the top of a digit to its baseline. It is only known once the atlas has been drawn.
+     * 
+     * @return The ascent of the digits.
+     */
+    public int getAscent() {
+        return ascent;
+    }
+
+    /**
+     * This returns the height of the digits, from the top of the highest to the bottom of the lowest. It is only known once the atlas has been drawn.
+     * 
+     * @return The height of the digits.
+     */
+    public int getHeight() {
+        return cellHeight;
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * This collects the parts of the screen that changed since the last frame, so that only those parts have to be drawn again.
+ * 
+ * The parts are kept as a short list of rectangles. A rectangle that overlaps or touches one already in the list is merged 
+ * into it, which keeps the list short and stops the same pixels from being drawn twice. If the list fills up, the whole 
+ * screen is marked as changed, since drawing a few large rectangles isn't much cheaper than drawing the whole screen.
+ * 
+ * The rectangles are stored in arrays of ints, so adding to the region doesn't create any objects.
+ */
+public class DirtyRegion {
+
+    /**
+     * This is the most rectangles the region keeps before it gives up and marks the whole screen.
+     */
+    private static final int MAX_RECTANGLES = 16;
+
+    /**
+     * This is the size of the screen.
+     */
+    private final int width, height;
+
+    /**
+     * These are the edges of the rectangles. The right and bottom edges are exclusive.
+     */
+    private final int [] left = new int[MAX_RECTANGLES], top = new int[MAX_RECTANGLES], 
+                         right = new int[MAX_RECTANGLES], bottom = new int[MAX_RECTANGLES];
+
+    /**
+     * This is the number of rectangles.
+     */
+    private int count = 0;
+
+    /**
+     * This indicates that the whole screen has to be drawn.
+     */
+    private boolean all = false;
+
+    /**
+     * This creates an empty region.
+     * 
+     * @param width		The width of the screen.
+     * @param height	The height of the screen.
+     */
+    public DirtyRegion(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * This empties the region. It is called at the start of every frame.
+     */
+    public void clear() {
+        count = 0;
+        all = false;
+    }
+
+    /**
+     * This marks the whole screen as changed.
+     */
+    public void markAll() {
+        all = true;
+    }
+
+    /**
+     * This indicates that the whole screen has to be drawn.
+     * 
+     * @return True if the whole screen was marked, or if so much of it changed that it is cheaper to draw all of it.
+     */
+    public boolean isAll() {
+        return all || getArea() * 2 > width * height;
+    }
+
+    /**
+     * This adds a rectangle that changed. The part of it that is off the screen is ignored.
+     * 
+     * @param x			The x coordinate of the rectangle.
+     * @param y			The y coordinate of the rectangle.
+     * @param w			The width of the rectangle.
+     * @param h			The height of the rectangle.
+     */
+    public void add(int x, int y, int w, int h) {
+        if (all) {
+            return;
+        }
+        int x1 = Math.max(x, 0);
+        int y1 = Math.max(y, 0);
+        int x2 = Math.min(x + w, width);
+        int y2 = Math.min(y + h, height);
+        if (x1 >= x2 || y1 >= y2) {
+            return;
+        }
+
+        /**
+         * Merge the rectangle into one that it overlaps or touches.
+         */
+        for (int i = 0; i < count; i++) {
+            if (x1 <= right[i] && left[i] <= x2 && y1 <= bottom[i] && top[i] <= y2) {
+                left[i] = Math.min(left[i], x1);
+                top[i] = Math.min(top[i], y1);
+                right[i] = Math.max(right[i], x2);
+                bottom[i] = Math.max(bottom[i], y2);
+                return;
+            }
+        }
+
+        if (count == MAX_RECTANGLES) {
+            all = true;
+            return;
+        }
+        left[count] = x1;
+        top[count] = y1;
+        right[count] = x2;
+        bottom[count] = y2;
+        count++;
+    }
+
+    /**
+     * This returns the number of rectangles in the region.
+     * 
+     * @return The number of rectangles.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * This returns the x coordinate of a rectangle.
+     * 
+     * @param i	The index of the rectangle.
+     * @return The x coordinate of the rectangle.
+     */
+    public int getX(int i) {
+        return left[i];
+    }
+
+    /**
+     * This returns the y coordinate of a rectangle.
+     * 
+     * @param i	The index of the rectangle.
+     * @return The y coordinate of the rectangle.
+     */
+    public int getY(int i) {
+        return top[i];
+    }
+
+    /**
+     * This returns the width of a rectangle.
+     * 
+     * @param i	The index of the rectangle.
+     * @return The width of the rectangle.
+     */
+    public int getWidth(int i) {
+        return right[i] - left[i];
+    }
+
+    /**
+     * This returns the height of a rectangle.
+     * 
+     * @param i	The index of the rectangle.
+     * @return The height of the rectangle.
+     */
+    public int getHeight(int i) {
+        return bottom[i] - top[i];
+    }
+
+    /**
+     * This returns the number of pixels covered by the rectangles. Pixels covered by two rectangles are counted twice.
+     * 
+     * @return The area of the rectangles.
+     */
+    public int getArea() {
+        int area = 0;
+        for (int i = 0; i < count; i++) {
+            area += (right[i] - left[i]) * (bottom[i] - top[i]);
+        }
+        return area;
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * This remembers where something was drawn on the last frame, so that when it moves or changes, both the place it 
+ * was drawn and the place it will be drawn can be added to the DirtyRegion. Nothing is added while it stays the same.
+ * 
+ * Each thing that is drawn separately (the slider, the clock, the score) has a tracker of its own. The people keep 
+ * where they were drawn in the DunkeeStore's arrays instead.
+ */
+public class DirtyTracker {
+
+    /**
+     * This is the sprite that was drawn last frame, or null if the tracker is following a box or nothing was drawn.
+     */
+    private Sprite sprite = null;
+
+    /**
+     * This is the box that was drawn last frame.
+     */
+    private int x, y, width, height;
+
+    /**
+     * This indicates that something was drawn last frame.
+     */
+    private boolean drawn = false;
+
+    /**
+     * This is called every frame with the sprite that is about to be drawn.
+     * 
+     * @param region	The parts of the screen that have to be drawn again.
+     * @param sprite	The sprite that is about to be drawn, or null if nothing is drawn.
+     * @param x			The x coordinate the sprite is drawn at.
+     * @param y			The y coordinate the sprite is drawn at.
+     */
+    public void track(DirtyRegion region, Sprite sprite, int x, int y) {
+        if (sprite == null) {
+            clear(region);
+        } else if (sprite != this.sprite || !drawn || x != this.x || y != this.y) {
+            track(region, x, y, sprite.getWidth(), sprite.getHeight());
+            this.sprite = sprite;
+        }
+    }
+
+    /**
+     * This is called with the box that is about to be drawn in. Both the old and the new box are added to the region, 
+     * even if they are the same, because this is also used when what is drawn in the box changes (text, for example).
+     * 
+     * @param region	The parts of the screen that have to be drawn again.
+     * @param x			The x coordinate of the box.
+     * @param y			The y coordinate of the box.
+     * @param width		The width of the box.
+     * @param height	The height of the box.
+     */
+    public void track(DirtyRegion region, int x, int y, int width, int height) {
+        if (drawn) {
+            region.add(this.x, this.y, this.width, this.height);
+        }
+        region.add(x, y, width, height);
+        this.sprite = null;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.drawn = true;
+    }
+
+    /**
+     * This is called when nothing is going to be drawn anymore. The place where something was drawn last is added to the region.
+     * 
+     * @param region	The parts of the screen that have to be drawn again.
+     */
+    public void clear(DirtyRegion region) {
+        if (drawn) {
+            region.add(x, y, width, height);
+            sprite = null;
+            drawn = false;
+        }
+    }
+}
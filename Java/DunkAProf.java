@@ -1,7 +1,10 @@
 import java.awt.Container;
 import java.awt.event.WindowEvent;
 import java.awt.event.WindowListener;
+import java.util.concurrent.TimeUnit;
+
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 
 /**
  * 	This is the main entry point for the project DunkAProf.  The goal of the game is to dunk
@@ -34,13 +37,38 @@ public class DunkAProf extends JFrame implements WindowListener {
      * on JFrame and JPanel.  In short, JFrame (in this context) is used as a simple container that will have the sole responsibility of rendering the JPanel
      * and minor window functions. This allows for flexibility and better organization of game components and game logic.
      */
-    private GamePanel gamePanel;
+    private GamePanel gamePanel = null;
+
+    /**
+     * This is shown in the window while the game's images, fonts and sounds are loaded.
+     */
+    private LoadingScreen loadingScreen;
+
+    /**
+     * This loads the game's images, fonts and sounds in the background.
+     */
+    private AssetManager assets;
+
+    /**
+     * This is the value of System.nanoTime() when the game was launched.
+     */
+    private final long launchTime;
 
     /**
      * Constructs the JFrame
      */
     public DunkAProf() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * Constructs the JFrame
+     * 
+     * @param launchTime	The value of System.nanoTime() when the game was launched.
+     */
+    public DunkAProf(long launchTime) {
         super("DunkAProf");
+        this.launchTime = launchTime;
         makeGUI();
         addWindowListener( this );
         
@@ -55,20 +83,50 @@ public class DunkAProf extends JFrame implements WindowListener {
     }// end of DunkAProf() constructor
 
     /**
-     * This is used to set up the JFrame's GUI by initiating the game panel and adding 
-     * it to this JFrame window.
+     * This is used to set up the JFrame's GUI. The game's files are loaded in the background while a loading screen 
+     * is shown; once they are loaded, startGame() puts the game panel in its place.
      */
     private void makeGUI() {
         // The default BorderLayout is used
         Container container = getContentPane();
 
-        gamePanel = new GamePanel();
+        assets = new AssetManager();
+        GamePanel.preload(assets);
+        assets.shutdown();
 
-        // Add the gamePanel to the window container
-        container.add(gamePanel, "Center");
+        loadingScreen = new LoadingScreen(assets, GamePanel.panelWidth, GamePanel.panelHeight, new Runnable() {
+            @Override
+            public void run() {
+                startGame();
+            }
+        });
+
+        // Add the loading screen to the window container
+        container.add(loadingScreen, "Center");
+        loadingScreen.start();
 
     }  // end of makeGUI()
 
+    /**
+     * This is called on the event dispatch thread once the game's files are loaded. It initiates the game panel, which 
+     * finds everything it needs already loaded, and puts it in the place of the loading screen.
+     */
+    private void startGame() {
+        long loadTime = System.nanoTime() - launchTime;
+        System.out.println("Loaded " + assets.getAssetCount() + " assets on " + assets.getThreadCount() + " threads " 
+                           + TimeUnit.NANOSECONDS.toMillis(loadTime) + " ms after launch");
+
+        gamePanel = new GamePanel();
+        gamePanel.setLaunchTime(launchTime);
+
+        // Swap the loading screen for the gamePanel
+        Container container = getContentPane();
+        container.remove(loadingScreen);
+        loadingScreen = null;
+        container.add(gamePanel, "Center");
+        container.validate();
+    }
+
     
     /**
      * Resume game when this JFrame is activated.
@@ -76,7 +134,9 @@ public class DunkAProf extends JFrame implements WindowListener {
      */
     @Override
     public void windowActivated(WindowEvent arg0) {
-    	gamePanel.resumeGame();
+    	if (gamePanel != null) {
+    		gamePanel.resumeGame();
+    	}
 
     }
 
@@ -95,7 +155,9 @@ public class DunkAProf extends JFrame implements WindowListener {
     public void windowClosing(WindowEvent arg0) {
 
         // If the window is closing, stop the game.
-        gamePanel.stopGame();
+        if (gamePanel != null) {
+            gamePanel.stopGame();
+        }
         
     }
 
@@ -107,7 +169,9 @@ public class DunkAProf extends JFrame implements WindowListener {
     public void windowDeactivated(WindowEvent arg0) {
     	
     	// If game is not active window, pause the game
-    	gamePanel.pauseGame();
+    	if (gamePanel != null) {
+    		gamePanel.pauseGame();
+    	}
 
     }
 
@@ -117,7 +181,9 @@ public class DunkAProf extends JFrame implements WindowListener {
      */
     @Override
     public void windowDeiconified(WindowEvent e) {
-    	gamePanel.resumeGame();
+    	if (gamePanel != null) {
+    		gamePanel.resumeGame();
+    	}
 
     }
 
@@ -129,7 +195,9 @@ public class DunkAProf extends JFrame implements WindowListener {
     public void windowIconified(WindowEvent e) {
     	
     	// If window is minimized, pause game
-    	gamePanel.pauseGame();
+    	if (gamePanel != null) {
+    		gamePanel.pauseGame();
+    	}
 
     }
 
@@ -148,7 +216,13 @@ public class DunkAProf extends JFrame implements WindowListener {
      * for the game to run.
      */
     public static void main(String args[]) {
-        new DunkAProf();
+        final long launchTime = System.nanoTime();
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                new DunkAProf(launchTime);
+            }
+        });
     }
 
 }
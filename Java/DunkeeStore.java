@@ -0,0 +1,616 @@
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This holds every person in the game that can be dunked (the professors, deans and trustees), along with their targets,
+ * splash animations and score splashes.
+ * 
+ * Like the projectiles in the ProjectilePool, the people are kept in arrays (one array for the y coordinates, one for the 
+ * dunk states and so on) instead of one object per person, and a person is just an index into them. Updating the people 
+ * is one loop over the arrays, and drawing them is one loop per frame, no matter how many there are. Their images are 
+ * kept in a table and each person only stores the index of his images in it.
+ * 
+ * A person is added with a DunkeeType, which gives his images, sounds, size and points, and a position. Each person 
+ * sinks into the tank he was added with. The tank never moves, so the lines of the tank that are tested while he sinks 
+ * are copied into the arrays when he is added. His sounds are kept as AudioEngine ids, and where he was drawn on the 
+ * last frame is kept in arrays too, so the store holds no object for any person.
+ */
+public class DunkeeStore {
+
+    /**
+     * These are the states a person can be in: standing on his platform, dunked (sinking into his tank) and 
+     * being undunked (rising back up to his platform).
+     */
+    private static final byte STANDING = 0, DUNKED = 1, UNDUNKING = 2;
+
+    /**
+     * This is the distance a person rises each update while he is being undunked.
+     */
+    private static final int RISE_SPEED = 5;
+
+    /**
+     * This is how long each frame of the splash animation is shown for.
+     */
+    private static final long SPLASH_FRAME_DURATION = TimeUnit.MILLISECONDS.toNanos(80);
+
+    /**
+     * These are the image of the targets above the people's heads and the size it is drawn at.
+     */
+    static final String TARGET_IMAGE = "images/target.png";
+    static final int TARGET_SIZE = 50;
+
+    /**
+     * These are the size the score splashes are drawn at.
+     */
+    static final int SCORE_WIDTH = 80, SCORE_HEIGHT = 120;
+
+    /**
+     * This is the sound that is heard when a person hits the water.
+     */
+    static final String SPLASH_SOUND = "sounds/dunkInWater.wav";
+
+    /**
+     * This is the most people the store can hold.
+     */
+    private final int capacity;
+
+    /**
+     * This is the number of people in the store.
+     */
+    private int count = 0;
+
+    /**
+     * These hold the images and the splash animations. The people store indexes into them.
+     */
+    private Sprite [] sprites = new Sprite[8];
+    private AnimationClip [] clips = new AnimationClip[2];
+    private int spriteCount = 0, clipCount = 0;
+
+    /**
+     * These store the x coordinate of each person and his y coordinate now, before he last moved and when he stands on his platform.
+     */
+    private final int [] xPosition, yPosition, previousYPosition, startYPosition;
+
+    /**
+     * This stores the distance each person moves down (or up, if it is negative) each update. It is set from his state 
+     * by update(): the sink speed while he is dunked, minus RISE_SPEED while he is being undunked and 0 otherwise.
+     */
+    private final int [] yVelocity;
+
+    /**
+     * These store the width and height of each person's image.
+     */
+    private final int [] width, height;
+
+    /**
+     * This stores the state of each person: STANDING, DUNKED or UNDUNKING.
+     */
+    private final byte [] state;
+
+    /**
+     * This indicates if each person's target can be hit. It is set by update().
+     */
+    private final boolean [] hittable;
+
+    /**
+     * This stores the amount the score is increased when each person's target is hit.
+     */
+    private final int [] scoreModifier;
+
+    /**
+     * These store the indexes of each person's images in the sprite table.
+     */
+    private final int [] image, undunkImage, scoreImage;
+
+    /**
+     * These store the position of each person's target.
+     */
+    private final int [] targetXPosition, targetYPosition;
+
+    /**
+     * This stores the index of the image of the targets in the sprite table.
+     */
+    private int targetImage = -1;
+
+    /**
+     * These store the left and right side of each person's tank, and the y coordinates of its middle and bottom lines.
+     */
+    private final int [] tankLeft, tankRight, tankMiddleY, tankBottomY;
+
+    /**
+     * These store the index of each person's splash animation in the clip table and where it is drawn.
+     */
+    private final int [] splashClip, splashXPosition, splashYPosition;
+
+    /**
+     * These store how long each person's splash animation has been playing and if it is playing.
+     */
+    private final long [] splashElapsed;
+    private final boolean [] splashPlaying;
+
+    /**
+     * These store the AudioEngine ids of each person's splash and scream, or -1 if he has no such sound (or it couldn't be loaded).
+     */
+    private final int [] splashSound, scream;
+
+    /**
+     * These store how much longer (in nanoseconds of game time) each person's splash and scream are playing. A sound 
+     * isn't started again while it is still playing.
+     */
+    private final long [] splashSoundLeft, screamLeft;
+
+    /**
+     * These store the y coordinate each person was drawn at on the last frame and the index of the image he was drawn 
+     * with. His x coordinate never changes, and the size of the box is the size of the image.
+     */
+    private final int [] drawnYPosition, drawnImage;
+
+    /**
+     * This stores the frame of each person's splash animation that was drawn on the last frame, or -1 if none was. 
+     * The animation is always drawn at the same place, and the size of the box is the size of the frame.
+     */
+    private final int [] drawnSplashFrame;
+
+    /**
+     * This indicates if each person's score splash was drawn on the last frame. It is always drawn at the same place.
+     */
+    private final boolean [] drawnScore;
+
+    /**
+     * This is the number of people that have been drawn. The targets never move or change, so a target only has to 
+     * be drawn again after it is first drawn. The people after this haven't been drawn yet.
+     */
+    private int drawnCount = 0;
+
+    /**
+     * This creates an empty store.
+     * 
+     * @param capacity	The most people the store can hold.
+     */
+    public DunkeeStore(int capacity) {
+        this.capacity = capacity;
+        xPosition = new int[capacity];
+        yPosition = new int[capacity];
+        previousYPosition = new int[capacity];
+        startYPosition = new int[capacity];
+        yVelocity = new int[capacity];
+        width = new int[capacity];
+        height = new int[capacity];
+        state = new byte[capacity];
+        hittable = new boolean[capacity];
+        scoreModifier = new int[capacity];
+        image = new int[capacity];
+        undunkImage = new int[capacity];
+        scoreImage = new int[capacity];
+        targetXPosition = new int[capacity];
+        targetYPosition = new int[capacity];
+        tankLeft = new int[capacity];
+        tankRight = new int[capacity];
+        tankMiddleY = new int[capacity];
+        tankBottomY = new int[capacity];
+        splashClip = new int[capacity];
+        splashXPosition = new int[capacity];
+        splashYPosition = new int[capacity];
+        splashElapsed = new long[capacity];
+        splashPlaying = new boolean[capacity];
+        splashSound = new int[capacity];
+        scream = new int[capacity];
+        splashSoundLeft = new long[capacity];
+        screamLeft = new long[capacity];
+        drawnYPosition = new int[capacity];
+        drawnImage = new int[capacity];
+        drawnSplashFrame = new int[capacity];
+        drawnScore = new boolean[capacity];
+    }
+
+    /**
+     * This adds a person to the store.
+     * 
+     * @param type				The kind of person.
+     * @param xPosition			The x coordinate of the person.
+     * @param yPosition			The y coordinate of the person when he stands on his platform.
+     * @param targetXPosition	The x coordinate of the target above the person's head.
+     * @param targetYPosition	The y coordinate of the target above the person's head.
+     * @param splashXPosition	The x coordinate of the splash animation.
+     * @param splashYPosition	The y coordinate of the splash animation.
+     * @param tank				The tank the person sinks into.
+     * @return The index of the person.
+     */
+    public int add(DunkeeType type, int xPosition, int yPosition, int targetXPosition, int targetYPosition, 
+                   int splashXPosition, int splashYPosition, Pool tank) {
+        if (count == capacity) {
+            throw new IllegalStateException("The store can't hold more than " + capacity + " people");
+        }
+        int i = count++;
+
+        this.image[i] = addSprite(SpriteCache.getAtlasSprite(type.getFileName(), type.getWidth(), type.getHeight()));
+        this.undunkImage[i] = addSprite(SpriteCache.getAtlasSprite(type.getUndunkImage(), type.getWidth(), type.getHeight()));
+        this.scoreImage[i] = addSprite(SpriteCache.getAtlasSprite(type.getScoreImage(), SCORE_WIDTH, SCORE_HEIGHT));
+        if (targetImage < 0) {
+            targetImage = addSprite(SpriteCache.getAtlasSprite(TARGET_IMAGE, TARGET_SIZE, TARGET_SIZE));
+        }
+        this.splashClip[i] = addClip(AnimationClip.get(type.getSplashImage(), DunkeeType.SPLASH_FRAMES, SPLASH_FRAME_DURATION));
+
+        this.xPosition[i] = xPosition;
+        this.yPosition[i] = yPosition;
+        this.previousYPosition[i] = yPosition;
+        this.startYPosition[i] = yPosition;
+        this.yVelocity[i] = 0;
+        this.width[i] = sprites[image[i]].getWidth();
+        this.height[i] = sprites[image[i]].getHeight();
+        this.state[i] = STANDING;
+        this.hittable[i] = false;
+        this.scoreModifier[i] = type.getScoreModifier();
+        this.targetXPosition[i] = targetXPosition;
+        this.targetYPosition[i] = targetYPosition;
+        this.tankLeft[i] = tank.getXPosition();
+        this.tankRight[i] = tank.getXPosition() + tank.getWidth();
+        this.tankMiddleY[i] = tank.getMiddleLineY();
+        this.tankBottomY[i] = tank.getBottomLineY();
+        this.splashXPosition[i] = splashXPosition;
+        this.splashYPosition[i] = splashYPosition;
+        this.splashElapsed[i] = 0;
+        this.splashPlaying[i] = false;
+        this.splashSound[i] = loadSound(SPLASH_SOUND);
+        this.scream[i] = type.getScreamFile() != null ? loadSound(type.getScreamFile()) : -1;
+        this.splashSoundLeft[i] = 0;
+        this.screamLeft[i] = 0;
+        this.drawnSplashFrame[i] = -1;
+        this.drawnScore[i] = false;
+        return i;
+    }
+
+    /**
+     * This loads a sound into the AudioEngine.
+     * 
+     * @param fileName	The name of the sound file.
+     * @return The id of the sound, or -1 if it couldn't be loaded.
+     */
+    private static int loadSound(String fileName) {
+        AudioEngine.Sound sound = AudioEngine.getInstance().load(fileName);
+        return sound != null ? sound.getId() : -1;
+    }
+
+    /**
+     * This plays a sound unless it is still playing.
+     * 
+     * @param id	The id of the sound, or -1 if there is no sound.
+     * @param left	How much longer the sound is playing for each person.
+     * @param i		The index of the person.
+     */
+    private static void playSound(int id, long [] left, int i) {
+        if (id >= 0 && left[i] <= 0) {
+            left[i] = AudioEngine.getInstance().getLength(id);
+            AudioEngine.getInstance().play(id);
+        }
+    }
+
+    /**
+     * This moves every person (dunks or undunks them) and plays their splash animations. It doesn't check if their targets 
+     * were hit. Afterwards isHittable() tells which targets can be hit, and hit() is called for the ones that were.
+     * 
+     * @param distance	The distance a dunked person sinks each update.
+     * @param time		The time (in nanoseconds) that has passed since the last update. It is used to play the animations.
+     */
+    public void update(int distance, long time) {
+        for (int i = 0; i < count; i++) {
+            hittable[i] = false;
+            previousYPosition[i] = yPosition[i];
+            splashSoundLeft[i] -= time;
+            screamLeft[i] -= time;
+
+            /**
+             * Play the splash animation. It stops once it has played through once.
+             */
+            if (splashPlaying[i]) {
+                splashElapsed[i] += time;
+                if (splashElapsed[i] >= clips[splashClip[i]].getLength()) {
+                    splashElapsed[i] = 0;
+                    splashPlaying[i] = false;
+                }
+            }
+
+            switch (state[i]) {
+            case DUNKED:
+
+                /**
+                 * A dunked person who has passed the middle of his tank splashes and keeps sinking. Once he 
+                 * reaches the bottom, he is undunked.
+                 */
+                if (Collision.intersectsHorizontalLine(xPosition[i], yPosition[i], width[i], height[i], tankLeft[i], tankRight[i], tankMiddleY[i])) {
+                    splashPlaying[i] = true;
+                    playSound(splashSound[i], splashSoundLeft, i);
+                    yVelocity[i] = distance;
+                } else if (Collision.intersectsHorizontalLine(xPosition[i], yPosition[i], width[i], height[i], tankLeft[i], tankRight[i], tankBottomY[i])) {
+                    state[i] = UNDUNKING;
+                    yVelocity[i] = 0;
+                } else {
+                    yVelocity[i] = distance;
+                }
+                break;
+
+            case UNDUNKING:
+
+                /**
+                 * A person who is being undunked rises until he is back on his platform. The last step is cut short, 
+                 * so he lands on it even if the distance he sank isn't a multiple of RISE_SPEED.
+                 */
+                if (yPosition[i] <= startYPosition[i]) {
+                    state[i] = STANDING;
+                    yVelocity[i] = 0;
+                } else {
+                    yVelocity[i] = Math.max(startYPosition[i] - yPosition[i], -RISE_SPEED);
+                }
+                break;
+
+            default:
+
+                /**
+                 * If the person is standing on his platform, then his target can be hit.
+                 */
+                hittable[i] = true;
+                yVelocity[i] = 0;
+                break;
+            }
+            yPosition[i] += yVelocity[i];
+        }
+    }
+
+    /**
+     * This is used to check if a person's target can be hit. It can only be hit when the person was standing 
+     * on his platform during the last update.
+     * 
+     * @param i	The index of the person.
+     * @return True if the target can be hit, false otherwise.
+     */
+    public boolean isHittable(int i) {
+        return hittable[i];
+    }
+
+    /**
+     * This is called when a person's target was hit. It increases the score and dunks the person.
+     * 
+     * @param i		The index of the person.
+     * @param score	An object that represents the player's score.
+     */
+    public void hit(int i, Score score) {
+        hittable[i] = false;
+        score.increaseScore(scoreModifier[i]);
+        dunk(i);
+    }
+
+    /**
+     * This is used to dunk a person. When the person is dunked, if he has a scream, then have him scream.
+     * 
+     * @param i	The index of the person.
+     */
+    public void dunk(int i) {
+        playSound(scream[i], screamLeft, i);
+        state[i] = DUNKED;
+    }
+
+    /**
+     * This is used to see if a person is dunked or not.
+     * 
+     * @param i	The index of the person.
+     * @return True if the person is dunked, false otherwise.
+     */
+    public boolean isDunked(int i) {
+        return state[i] == DUNKED;
+    }
+
+    /**
+     * This draws a person's target, the person, his splash animation if it is playing and his score splash if he is dunked.
+     *
+     * @param graphics		A reference to the JPanel buffer
+     * @param i				The index of the person.
+     * @param interpolation	How far (from 0 to 1) the person is between his previous and current position.
+     */
+    public void draw(Graphics graphics, int i, float interpolation) {
+        sprites[targetImage].draw(graphics, targetXPosition[i], targetYPosition[i]);
+        sprites[state[i] == UNDUNKING ? undunkImage[i] : image[i]].draw(graphics, xPosition[i], getDrawYPosition(i, interpolation));
+        if (splashPlaying[i]) {
+            clips[splashClip[i]].getFrameAt(splashElapsed[i]).draw(graphics, splashXPosition[i], splashYPosition[i]);
+        }
+        if (state[i] == DUNKED) {
+            sprites[scoreImage[i]].draw(graphics, xPosition[i], startYPosition[i]);
+        }
+    }
+
+    /**
+     * This adds the parts of the screen where each person (or his target, splash or score) was drawn last frame or 
+     * will be drawn this frame to the region that has to be drawn again, if they changed.
+     *
+     * @param region		The parts of the screen that have to be drawn again.
+     * @param interpolation	How far (from 0 to 1) the people are between their previous and current positions.
+     */
+    public void markDirty(DirtyRegion region, float interpolation) {
+        for (int i = 0; i < count; i++) {
+            boolean drawn = i < drawnCount;
+            if (!drawn) {
+                region.add(targetXPosition[i], targetYPosition[i], sprites[targetImage].getWidth(), sprites[targetImage].getHeight());
+            }
+
+            /**
+             * The person is drawn again when he moves or his image changes.
+             */
+            int y = getDrawYPosition(i, interpolation);
+            int personImage = state[i] == UNDUNKING ? undunkImage[i] : image[i];
+            if (!drawn || y != drawnYPosition[i] || personImage != drawnImage[i]) {
+                if (drawn) {
+                    Sprite old = sprites[drawnImage[i]];
+                    region.add(xPosition[i], drawnYPosition[i], old.getWidth(), old.getHeight());
+                }
+                region.add(xPosition[i], y, sprites[personImage].getWidth(), sprites[personImage].getHeight());
+                drawnYPosition[i] = y;
+                drawnImage[i] = personImage;
+            }
+
+            /**
+             * The splash animation is drawn again when its frame changes, starts or stops.
+             */
+            AnimationClip clip = clips[splashClip[i]];
+            int frame = splashPlaying[i] ? (int) (splashElapsed[i] / clip.getFrameDuration()) : -1;
+            if (frame != drawnSplashFrame[i]) {
+                if (drawnSplashFrame[i] >= 0) {
+                    Sprite old = clip.getFrame(drawnSplashFrame[i]);
+                    region.add(splashXPosition[i], splashYPosition[i], old.getWidth(), old.getHeight());
+                }
+                if (frame >= 0) {
+                    region.add(splashXPosition[i], splashYPosition[i], clip.getFrame(frame).getWidth(), clip.getFrame(frame).getHeight());
+                }
+                drawnSplashFrame[i] = frame;
+            }
+
+            /**
+             * The score splash is drawn again when it appears or disappears.
+             */
+            boolean score = state[i] == DUNKED;
+            if (score != drawnScore[i]) {
+                region.add(xPosition[i], startYPosition[i], sprites[scoreImage[i]].getWidth(), sprites[scoreImage[i]].getHeight());
+                drawnScore[i] = score;
+            }
+        }
+        drawnCount = count;
+    }
+
+    /**
+     * This works out the box that surrounds everything draw() draws for a person except his target: the person, 
+     * his splash animation if it is playing and his score splash if he is dunked.
+     *
+     * @param i				The index of the person.
+     * @param interpolation	How far (from 0 to 1) the person is between his previous and current position.
+     * @param bounds		This is set to the box.
+     */
+    public void getDrawBounds(int i, float interpolation, Rectangle bounds) {
+        bounds.setBounds(xPosition[i], getDrawYPosition(i, interpolation), width[i], height[i]);
+        if (splashPlaying[i]) {
+            Sprite frame = clips[splashClip[i]].getFrameAt(splashElapsed[i]);
+            bounds.add(splashXPosition[i], splashYPosition[i]);
+            bounds.add(splashXPosition[i] + frame.getWidth(), splashYPosition[i] + frame.getHeight());
+        }
+        if (state[i] == DUNKED) {
+            Sprite splash = sprites[scoreImage[i]];
+            bounds.add(xPosition[i], startYPosition[i]);
+            bounds.add(xPosition[i] + splash.getWidth(), startYPosition[i] + splash.getHeight());
+        }
+    }
+
+    /**
+     * This returns the y coordinate a person is drawn at, between his previous and current position.
+     *
+     * @param i				The index of the person.
+     * @param interpolation	How far (from 0 to 1) the person is between his previous and current position.
+     * @return The y coordinate the person is drawn at.
+     */
+    private int getDrawYPosition(int i, float interpolation) {
+        return Math.round(previousYPosition[i] + (yPosition[i] - previousYPosition[i]) * interpolation);
+    }
+
+    /**
+     * This returns the number of people in the store.
+     * 
+     * @return The number of people.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * This is used to get the x coordinate of a person.
+     * 
+     * @param i	The index of the person.
+     * @return The x coordinate of the person.
+     */
+    public int getXPosition(int i) {
+        return xPosition[i];
+    }
+
+    /**
+     * This is used to get the y coordinate of a person.
+     * 
+     * @param i	The index of the person.
+     * @return The y coordinate of the person.
+     */
+    public int getYPosition(int i) {
+        return yPosition[i];
+    }
+
+    /**
+     * This is used to get the x coordinate of a person's target.
+     * 
+     * @param i	The index of the person.
+     * @return The x coordinate of the target.
+     */
+    public int getTargetXPosition(int i) {
+        return targetXPosition[i];
+    }
+
+    /**
+     * This is used to get the y coordinate of a person's target.
+     * 
+     * @param i	The index of the person.
+     * @return The y coordinate of the target.
+     */
+    public int getTargetYPosition(int i) {
+        return targetYPosition[i];
+    }
+
+    /**
+     * This is used to get the width of the targets.
+     * 
+     * @return The width of a target.
+     */
+    public int getTargetWidth() {
+        return sprites[targetImage].getWidth();
+    }
+
+    /**
+     * This is used to get the height of the targets.
+     * 
+     * @return The height of a target.
+     */
+    public int getTargetHeight() {
+        return sprites[targetImage].getHeight();
+    }
+
+    /**
+     * This adds an image to the sprite table if it isn't in it already.
+     * 
+     * @param sprite	The image.
+     * @return The index of the image in the table.
+     */
+    private int addSprite(Sprite sprite) {
+        for (int i = 0; i < spriteCount; i++) {
+            if (sprites[i] == sprite) {
+                return i;
+            }
+        }
+        if (spriteCount == sprites.length) {
+            sprites = Arrays.copyOf(sprites, spriteCount * 2);
+        }
+        sprites[spriteCount] = sprite;
+        return spriteCount++;
+    }
+
+    /**
+     * This adds an animation to the clip table if it isn't in it already.
+     * 
+     * @param clip	The animation.
+     * @return The index of the animation in the table.
+     */
+    private int addClip(AnimationClip clip) {
+        for (int i = 0; i < clipCount; i++) {
+            if (clips[i] == clip) {
+                return i;
+            }
+        }
+        if (clipCount == clips.length) {
+            clips = Arrays.copyOf(clips, clipCount * 2);
+        }
+        clips[clipCount] = clip;
+        return clipCount++;
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * This describes a kind of person that can be dunked (a professor, a dean, a trustee): the images and sounds used for 
+ * him, the size he is drawn at and the points he is worth. It doesn't say where he stands; that is given when a person 
+ * of this kind is added to a DunkeeStore, so any number of people of the same kind can be added.
+ * 
+ * @author Osher Cohen
+ *
+ */
+public final class DunkeeType {
+
+    /**
+     * This is the number of frames in the splash animation.
+     */
+    static final int SPLASH_FRAMES = 10;
+
+    /**
+     * The file which stores the image of the person.
+     */
+    private final String fileName;
+
+    /**
+     * The file which stores the image of the person when he is being undunked.
+     */
+    private final String undunkImage;
+
+    /**
+     * The file which stores the person's score splash image.
+     */
+    private final String scoreImage;
+
+    /**
+     * The name of the sequence of frames in the splash animation. Frame i is stored in splashImage + i + ".png".
+     */
+    private final String splashImage;
+
+    /**
+     * The file which stores the person's scream, or null if he doesn't scream.
+     */
+    private final String screamFile;
+
+    /**
+     * The scaled width and height of the image of the person.
+     */
+    private final int width, height;
+
+    /**
+     * The amount the score is increased when the person's target is hit.
+     */
+    private final int scoreModifier;
+
+    /**
+     * Constructs a kind of person.
+     * 
+     * @param fileName		The file which stores the image of the person.
+     * @param undunkImage	The file which stores the image of the person when he is being undunked.
+     * @param scoreImage	The file which stores the person's score splash image.
+     * @param splashImage	The name of the sequence of frames in the splash animation.
+     * @param screamFile	The file which stores the person's scream, or null if he doesn't scream.
+     * @param width			The scaled width of the image of the person.
+     * @param height		The scaled height of the image of the person.
+     * @param scoreModifier	The amount the score is increased when the person's target is hit.
+     */
+    public DunkeeType(String fileName, String undunkImage, String scoreImage, String splashImage, String screamFile, 
+                      int width, int height, int scoreModifier) {
+        this.fileName = fileName;
+        this.undunkImage = undunkImage;
+        this.scoreImage = scoreImage;
+        this.splashImage = splashImage;
+        this.screamFile = screamFile;
+        this.width = width;
+        this.height = height;
+        this.scoreModifier = scoreModifier;
+    }
+
+    /**
+     * This starts loading the images and sounds of this kind of person in the background, so adding a person of this 
+     * kind to a DunkeeStore finds everything it needs already loaded.
+     * 
+     * @param assets	The asset manager that loads the files.
+     */
+    public void preload(AssetManager assets) {
+        assets.loadFrames(splashImage, SPLASH_FRAMES);
+        assets.loadSprite(fileName, width, height);
+        assets.loadSprite(undunkImage, width, height);
+        assets.loadSprite(DunkeeStore.TARGET_IMAGE, DunkeeStore.TARGET_SIZE, DunkeeStore.TARGET_SIZE);
+        assets.loadSprite(scoreImage, DunkeeStore.SCORE_WIDTH, DunkeeStore.SCORE_HEIGHT);
+        assets.loadSound(DunkeeStore.SPLASH_SOUND);
+        if(screamFile != null) {
+        	assets.loadSound(screamFile);
+        }
+    }
+
+    /**
+     * This returns the file which stores the image of the person.
+     * 
+     * @return The file name.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * This returns the file which stores the image of the person when he is being undunked.
+     * 
+     * @return The file name.
+     */
+    public String getUndunkImage() {
+        return undunkImage;
+    }
+
+    /**
+     * This returns the file which stores the person's score splash image.
+     * 
+     * @return The file name.
+     */
+    public String getScoreImage() {
+        return scoreImage;
+    }
+
+    /**
+     * This returns the name of the sequence of frames in the splash animation.
+     * 
+     * @return The name of the frames.
+     */
+    public String getSplashImage() {
+        return splashImage;
+    }
+
+    /**
+     * This returns the file which stores the person's scream.
+     * 
+     * @return The file name, or null if he doesn't scream.
+     */
+    public String getScreamFile() {
+        return screamFile;
+    }
+
+    /**
+     * This returns the scaled width of the image of the person.
+     * 
+     * @return The width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * This returns the scaled height of the image of the person.
+     * 
+     * @return The height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * This returns the amount the score is increased when the person's target is hit.
+     * 
+     * @return The number of points.
+     */
+    public int getScoreModifier() {
+        return scoreModifier;
+    }
+}
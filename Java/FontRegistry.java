@@ -0,0 +1,96 @@
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.awt.GraphicsEnvironment;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class loads the fonts used in the game and keeps them so every font file is only read and parsed once.
+ * 
+ * Font.createFont() reads and parses the whole font file every time it is called, so each font file is loaded the 
+ * first time it is asked for and registered with the GraphicsEnvironment. The sizes that are asked for are made from
+ * that font with deriveFont() and kept too, so all the objects that use the same font at the same size (the clock, 
+ * the score and the messages) share one Font.
+ */
+public final class FontRegistry {
+
+    /**
+     * This stores the loaded fonts by their file name.
+     */
+    private static final ConcurrentHashMap<String, Font> fonts = new ConcurrentHashMap<String, Font>();
+
+    /**
+     * This stores the fonts that were derived from the loaded fonts by their file name and size.
+     */
+    private static final ConcurrentHashMap<String, Font> sizes = new ConcurrentHashMap<String, Font>();
+
+    /**
+     * This class only has static methods, so it can't be constructed.
+     */
+    private FontRegistry() {
+    }
+
+    /**
+     * This returns the TrueType font stored in a file at the given size.
+     * 
+     * @param fileName	The file which stores the font.
+     * @param size		The point size of the font.
+     * @return The font, or null if it couldn't be loaded.
+     */
+    public static Font getFont(String fileName, float size) {
+        String key = fileName + "@" + size;
+        Font font = sizes.get(key);
+        if (font == null) {
+            Font base = getFont(fileName);
+            if (base == null) {
+                return null;
+            }
+            font = base.deriveFont(size);
+            Font derived = sizes.putIfAbsent(key, font);
+            if (derived != null) {
+                font = derived;	// Another thread derived it first, so use that one.
+            }
+        }
+        return font;
+    }
+
+    /**
+     * This returns the TrueType font stored in a file, loading it and registering it the first time it is asked for.
+     * 
+     * @param fileName	The file which stores the font.
+     * @return The font at a size of 1 point, or null if it couldn't be loaded.
+     */
+    public static Font getFont(String fileName) {
+        Font font = fonts.get(fileName);
+        if (font == null) {
+            font = loadFont(fileName);
+            if (font != null) {
+                Font loaded = fonts.putIfAbsent(fileName, font);
+                if (loaded != null) {
+                    font = loaded;	// Another thread loaded it first, so use that one.
+                } else {
+                    GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
+                }
+            }
+        }
+        return font;
+    }
+
+    /**
+     * This reads a font from its file.
+     * 
+     * @param fileName	The file which stores the font.
+     * @return The font, or null if it couldn't be loaded.
+     */
+    private static Font loadFont(String fileName) {
+        try {
+            return Font.createFont(Font.TRUETYPE_FONT, new File(fileName));
+        } catch (FontFormatException e) {
+            e.printStackTrace();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+}
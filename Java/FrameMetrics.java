@@ -0,0 +1,359 @@
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This measures every frame of the game: the time since the last frame started, how long the updates, the drawing and
+ * putting the frame on the screen took, how many bytes the game thread allocated and how many garbage collections ran.
+ * Each of these is recorded in a Histogram for the whole game and in another one for the last second. The percentiles of
+ * the last second are shown by the MetricsOverlay, and a summary of the whole game is printed when the game ends.
+ *
+ * Every frame can also be written to a CSV file for looking at a long game afterwards, with -Ddunkaprof.metrics=file.csv.
+ * The numbers are written into a byte array by hand, so nothing is created while the game is measured, not even when
+ * the frames are written to the file.
+ *
+ * The measurements are made on the game thread, and the file is closed by the game thread when the game loop ends.
+ */
+public final class FrameMetrics {
+
+    /**
+     * These are the things that are measured every frame.
+     */
+    public static final int FRAME = 0, UPDATE = 1, RENDER = 2, PAINT = 3, ALLOCATED = 4;
+
+    /**
+     * This is the number of things that are measured every frame.
+     */
+    public static final int MEASUREMENTS = 5;
+
+    /**
+     * These are the names of the measurements, used in the summary.
+     */
+    private static final String [] NAMES = { "Frame time", "Update time", "Render time", "Paint time", "Bytes allocated" };
+
+    /**
+     * This is the first line of the CSV file. The times are in nanoseconds.
+     */
+    private static final String CSV_HEADER = "frame,start_ns,period_ns,updates,update_ns,render_ns,paint_ns,allocated_bytes,gc_count\n";
+
+    /**
+     * This is how often the percentiles of the last second are worked out.
+     */
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * These hold the measurements of the whole game and of the current second.
+     */
+    private final Histogram [] total = new Histogram[MEASUREMENTS], window = new Histogram[MEASUREMENTS];
+
+    /**
+     * These are the median and the 99th percentile of each measurement during the last whole second.
+     */
+    private final long [] median = new long[MEASUREMENTS], percentile99 = new long[MEASUREMENTS];
+
+    /**
+     * These are the number of garbage collections during the current second and the last whole second, and during the whole game.
+     */
+    private long windowCollections = 0, lastCollections = 0, totalCollections = 0;
+
+    /**
+     * This is the time the frames should take in nanoseconds.
+     */
+    private final long targetFrameTime;
+
+    /**
+     * These are the start of the last frame and of the current second, or 0 before the first frame.
+     */
+    private long previousFrameStart = 0, windowStart = 0;
+
+    /**
+     * This is the number of frames measured.
+     */
+    private long frames = 0;
+
+    /**
+     * This reads the bytes allocated by the game thread, or is null if the JVM can't tell.
+     */
+    private final com.sun.management.ThreadMXBean threads;
+
+    /**
+     * These are the garbage collectors. They are put in an array once, so counting the collections doesn't create an iterator.
+     */
+    private final GarbageCollectorMXBean [] collectors;
+
+    /**
+     * These are the bytes allocated and the number of garbage collections when the last frame ended, or -1 before the first frame.
+     */
+    private long previousAllocated = -1, previousCollections = -1;
+
+    /**
+     * The frames are written to this, or it is null if they aren't written.
+     */
+    private OutputStream csv = null;
+
+    /**
+     * This holds the line of the CSV file that is being written.
+     */
+    private final byte [] line = new byte[256];
+    private int lineLength = 0;
+
+    /**
+     * This creates the histograms and opens the CSV file if one was asked for with -Ddunkaprof.metrics=file.csv.
+     *
+     * @param targetFrameTime	The time the frames should take in nanoseconds.
+     */
+    public FrameMetrics(long targetFrameTime) {
+        this.targetFrameTime = targetFrameTime;
+        for (int i = 0; i < MEASUREMENTS; i++) {
+            total[i] = new Histogram();
+            window[i] = new Histogram();
+        }
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        threads = threadBean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) threadBean : null;
+        List<GarbageCollectorMXBean> collectorBeans = ManagementFactory.getGarbageCollectorMXBeans();
+        collectors = collectorBeans.toArray(new GarbageCollectorMXBean[collectorBeans.size()]);
+
+        String fileName = System.getProperty("dunkaprof.metrics", "");
+        if (!fileName.isEmpty()) {
+            try {
+                csv = new BufferedOutputStream(new FileOutputStream(fileName));
+                csv.write(CSV_HEADER.getBytes("US-ASCII"));
+            } catch (IOException e) {
+                System.out.println("Unable to write the frame metrics to " + fileName + ": " + e.getMessage());
+                close();
+            }
+        }
+    }
+
+    /**
+     * This records a frame. It is called on the game thread at the end of every frame.
+     *
+     * @param frameStart	The value of System.nanoTime() when the frame started.
+     * @param updates		The number of updates made during the frame.
+     * @param updateTime	The time the updates took in nanoseconds.
+     * @param renderTime	The time drawing the frame took in nanoseconds.
+     * @param paintTime		The time putting the frame on the screen took in nanoseconds.
+     */
+    public void endFrame(long frameStart, int updates, long updateTime, long renderTime, long paintTime) {
+        long period = previousFrameStart == 0 ? 0 : frameStart - previousFrameStart;
+        previousFrameStart = frameStart;
+
+        /**
+         * The allocation of the first frame isn't known, since there is nothing to compare it with.
+         */
+        long allocated = threads != null ? threads.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+        long collections = collectionCount();
+        long frameAllocated = previousAllocated < 0 ? 0 : allocated - previousAllocated;
+        long frameCollections = previousCollections < 0 ? 0 : collections - previousCollections;
+        previousAllocated = allocated;
+        previousCollections = collections;
+
+        if (period > 0) {
+            record(FRAME, period);
+        }
+        record(UPDATE, updateTime);
+        record(RENDER, renderTime);
+        record(PAINT, paintTime);
+        record(ALLOCATED, frameAllocated);
+        windowCollections += frameCollections;
+        totalCollections += frameCollections;
+        frames++;
+
+        if (windowStart == 0) {
+            windowStart = frameStart;
+        } else if (frameStart - windowStart >= WINDOW) {
+            for (int i = 0; i < MEASUREMENTS; i++) {
+                median[i] = window[i].getPercentile(50);
+                percentile99[i] = window[i].getPercentile(99);
+                window[i].reset();
+            }
+            lastCollections = windowCollections;
+            windowCollections = 0;
+            windowStart = frameStart;
+        }
+
+        if (csv != null) {
+            writeFrame(frameStart, period, updates, updateTime, renderTime, paintTime, frameAllocated, frameCollections);
+        }
+    }
+
+    /**
+     * This records a measurement in the histograms of the whole game and of the current second.
+     *
+     * @param measurement	The measurement: FRAME, UPDATE, RENDER, PAINT or ALLOCATED.
+     * @param value			The value.
+     */
+    private void record(int measurement, long value) {
+        total[measurement].record(value);
+        window[measurement].record(value);
+    }
+
+    /**
+     * This counts the garbage collections so far.
+     *
+     * @return The number of garbage collections by all the collectors.
+     */
+    private long collectionCount() {
+        long count = 0;
+        for (int i = 0; i < collectors.length; i++) {
+            count += Math.max(collectors[i].getCollectionCount(), 0);
+        }
+        return count;
+    }
+
+    /**
+     * This writes a frame to the CSV file.
+     *
+     * @param frameStart	The value of System.nanoTime() when the frame started.
+     * @param period		The time since the last frame started in nanoseconds, or 0 for the first frame.
+     * @param updates		The number of updates made during the frame.
+     * @param updateTime	The time the updates took in nanoseconds.
+     * @param renderTime	The time drawing the frame took in nanoseconds.
+     * @param paintTime		The time putting the frame on the screen took in nanoseconds.
+     * @param allocated		The bytes the game thread allocated during the frame.
+     * @param collections	The number of garbage collections during the frame.
+     */
+    private void writeFrame(long frameStart, long period, int updates, long updateTime, long renderTime,
+                             long paintTime, long allocated, long collections) {
+        if (csv == null) {
+            return;
+        }
+        lineLength = 0;
+        append(frames).append(frameStart).append(period).append(updates).append(updateTime).append(renderTime)
+            .append(paintTime).append(allocated).append(collections);
+        line[lineLength - 1] = '\n';
+        try {
+            csv.write(line, 0, lineLength);
+        } catch (IOException e) {
+            System.out.println("Unable to write the frame metrics: " + e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * This adds a number and a comma to the line that is being written.
+     *
+     * @param value	The number.
+     * @return This, so numbers can be added one after another.
+     */
+    private FrameMetrics append(long value) {
+        if (value < 0) {
+            line[lineLength++] = '-';
+            value = -value;
+        }
+
+        /**
+         * The digits are found from the last one to the first, so they are written from the end of the number.
+         */
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int end = lineLength + digits;
+        for (int i = end - 1; i >= lineLength; i--) {
+            line[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        lineLength = end;
+        line[lineLength++] = ',';
+        return this;
+    }
+
+    /**
+     * This closes the CSV file, writing out any frames that are still buffered. The frames after this aren't written.
+     * It must be called on the thread that measures the frames.
+     */
+    public void close() {
+        if (csv != null) {
+            try {
+                csv.close();
+            } catch (IOException e) {
+                System.out.println("Unable to write the frame metrics: " + e.getMessage());
+            }
+            csv = null;
+        }
+    }
+
+    /**
+     * This prints the percentiles of each measurement over the whole game.
+     */
+    public void printSummary() {
+        System.out.println("Frames measured: " + frames + " (target frame time " + toMillis(targetFrameTime) + " ms), "
+                           + totalCollections + " garbage collections");
+        for (int i = 0; i < MEASUREMENTS; i++) {
+            Histogram histogram = total[i];
+            if (i == ALLOCATED) {
+                System.out.println(NAMES[i] + " per frame: mean " + Math.round(histogram.getMean()) + ", p50 " + histogram.getPercentile(50)
+                                   + ", p99 " + histogram.getPercentile(99) + ", max " + histogram.getMax());
+            } else {
+                System.out.println(NAMES[i] + " (ms): mean " + toMillis(histogram.getMean()) + ", p50 " + toMillis(histogram.getPercentile(50))
+                                   + ", p99 " + toMillis(histogram.getPercentile(99)) + ", max " + toMillis(histogram.getMax()));
+            }
+        }
+    }
+
+    /**
+     * This turns nanoseconds into milliseconds with two decimals for printing.
+     *
+     * @param nanoseconds	The time in nanoseconds.
+     * @return The time in milliseconds.
+     */
+    private static String toMillis(double nanoseconds) {
+        return String.format("%.2f", nanoseconds / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * This returns the median of a measurement during the last whole second.
+     *
+     * @param measurement	The measurement: FRAME, UPDATE, RENDER, PAINT or ALLOCATED.
+     * @return The median, in nanoseconds or bytes. It is 0 until a second has passed.
+     */
+    public long getMedian(int measurement) {
+        return median[measurement];
+    }
+
+    /**
+     * This returns the 99th percentile of a measurement during the last whole second.
+     *
+     * @param measurement	The measurement: FRAME, UPDATE, RENDER, PAINT or ALLOCATED.
+     * @return The 99th percentile, in nanoseconds or bytes. It is 0 until a second has passed.
+     */
+    public long getPercentile99(int measurement) {
+        return percentile99[measurement];
+    }
+
+    /**
+     * This returns the number of garbage collections during the last whole second.
+     *
+     * @return The number of garbage collections.
+     */
+    public long getCollections() {
+        return lastCollections;
+    }
+
+    /**
+     * This returns the time the frames should take.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getTargetFrameTime() {
+        return targetFrameTime;
+    }
+
+    /**
+     * This returns the histogram of a measurement over the whole game.
+     *
+     * @param measurement	The measurement: FRAME, UPDATE, RENDER, PAINT or ALLOCATED.
+     * @return The histogram.
+     */
+    public Histogram getHistogram(int measurement) {
+        return total[measurement];
+    }
+}
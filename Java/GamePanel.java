@@ -1,14 +1,15 @@
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Font;
-import java.awt.FontFormatException;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
-import java.awt.Image;
+import java.awt.Rectangle;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
-import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.JPanel;
 
@@ -22,6 +23,9 @@ import javax.swing.JPanel;
  * This class is where the game graphics for the game is drawn. It 
  * is also where the game logic is updated.
  * 
+ *  The game state and the logic that updates it are kept in a GameWorld, which doesn't need a window. This class
+ *  runs the game loop, draws the GameWorld and passes the player's input on to it.
+ *  
  *  This class extends JPanel and implements Runnable, KeyListenter, and ActionListener.
  *  A JPanel is used to as the main container to house the game graphics and associated methods and events.
  *  
@@ -31,13 +35,12 @@ import javax.swing.JPanel;
  *  
  *  The KeyListener is used to capture keystroke events such as space bar or arrows and call the appropriate
  *  methods to simulate game logic. (http://docs.oracle.com/javase/7/docs/api/java/awt/event/KeyListener.html)
+ *  The key events arrive on the event dispatch thread, so they are only written down there. The game thread hands them
+ *  to the game at the start of the next update, which makes every game depend only on which keys were pressed on which
+ *  updates. The input can be recorded to an InputJournal with -Ddunkaprof.journal=file and played again with ReplayJournal.
  *  
- *  The Image object and the Graphics object reference the same off-screen game graphics buffer. 
- *  The reason I use both is that the Image object has functionality that the Graphics object lacks 
- *  and vice versa. For example, you can only draw an Image object to a graphics object which is 
- *  needed to draw the off-screen graphics to the JPanel. You also can't draw to an Image object. 
- *  This is why the Graphics object is necessary. A graphics object can't be created. It can only be retrieved by calling getGraphics()
- *  on an Image object.
+ *  The game is drawn to an off-screen buffer which is then put on the screen. The buffer is managed by a Renderer, which is
+ *  chosen at startup with -Ddunkaprof.renderer=bufferstrategy|volatile|image (see createRenderer()). 
  *  
  *  @author Osher Cohen
  *  
@@ -47,32 +50,53 @@ public class GamePanel extends JPanel implements Runnable, KeyListener {
     /**
     *	This is the used to store the width of the JPanel.
     */
-    private final int panelWidth = 800;
+    static final int panelWidth = 800;
 
     /**
      *	This is used to store the height of the JPanel.
      */
-    private final int panelHeight = 600;
+    static final int panelHeight = 600;
 
     /**
-     * This is the thread that performs the animation.
+     * This is the number of times per second the game logic is updated. Everything in the game moves a fixed
+     * distance per update, so this sets the speed of the game. It can be changed with -Ddunkaprof.tickRate=50
      */
-    private Thread animator;
+    private final int tickRate = Integer.getInteger("dunkaprof.tickRate", 50);
 
     /**
-     *	This is used to stop the game animation
+     * This is the number of times per second the game is drawn to the screen. It can be changed with
+     * -Ddunkaprof.renderRate=60
      */
-    private boolean running = false;
+    private final int renderRate = Integer.getInteger("dunkaprof.renderRate", 60);
 
     /**
- 	 * This is used to pause the game.
+     * This is the longest amount of time (in nanoseconds) that a single frame is allowed to account for. If the game
+     * stalls for longer than this (the window was dragged, the computer went to sleep, etc.) the missed time is dropped
+     * instead of being caught up all at once.
      */
-    private boolean isPaused = false;
+    private static final long MAX_FRAME_TIME = TimeUnit.MILLISECONDS.toNanos(250);
 
     /**
-     *	This is used to indicate that the game is over.
+     * This is the longest stopGame() waits (in milliseconds) for the game thread to finish its last frame.
      */
-    private boolean gameOver = false;
+    private static final long STOP_TIMEOUT = 1000;
+
+    /**
+     * This is the thread that performs the animation.
+     */
+    private volatile Thread animator;
+
+    /**
+     *	This is used to stop the game animation. It is set to false from the event dispatch thread when the window is
+     *	closed, so it is volatile for the game thread to see it.
+     */
+    private volatile boolean running = false;
+
+    /**
+ 	 * This is used to pause the game. It is only used on the game thread; the other threads ask for the game to be paused
+ 	 * through the input queue.
+     */
+    private boolean isPaused = false;
 
 
     /**
@@ -92,77 +116,129 @@ public class GamePanel extends JPanel implements Runnable, KeyListener {
     Background background;
 
     /**
-     * This class contains graphics (draw logic and images), actions (dunk logic), etc for an 
-     * object that will represent the Professor for the game.
+     * This holds the game components (professors, tanks, slider, etc.) and updates them.
      */
-    private Person professor;
+    private GameWorld world;
 
     /**
-     * This class contains graphics (draw logic and images), actions (dunk logic), etc for an 
-     * object that will represent the Dean for the game.
+     * This holds the background and the tanks drawn together into one image.
      */
-    private Person dean;
+    private StaticLayer staticLayer;
 
     /**
-     * This is the class that controls the game logic which governs the motion of the trustee 
-     * and its appearance in the game.
+     * This is used to hold the box around what is drawn for a person while he is drawn.
      */
-    private Person trustee;
+    private final Rectangle personBounds = new Rectangle();
 
     /**
-     * This is the object used as a starting point for our projectiles in the game. 
-     * This object slides back and forth on an x axis just below the dunk tanks.
+     *	This is used to store a reference to the JFrame
+     */
+    DunkAProf window;
+    
+    /**
+     * This is used to store the image and location of the paused graphic.
      */
-    private Slider slider;
+    Paused paused;
 
     /**
-     * This array of Pool objects are the dunk tanks used to dunk the faculty members.
-     * A pool is considered a dunk tank.
+     * This draws the game over message. It is made the first time the message is shown.
+     */
+    private TextLabel gameOverLabel = null;
+    
+    /**
+     * This manages the off-screen buffer that the game is drawn to and puts it on the screen.
      */
-    private Pool [] pool = new Pool [3];
+    private Renderer renderer;
 
     /**
-     * Object used to hit the targets near the faculty.
+     * This is the most times a frame will be drawn again in a row because the off-screen buffer lost its contents.
      */
-    private Projectile projectile;
+    private static final int MAX_RENDER_ATTEMPTS = 3;
 
     /**
-     * Represents the Game clock/time limit for this game.
+     * This collects the parts of the screen that changed since the last frame.
      */
-    private Clock clock;
+    private final DirtyRegion dirtyRegion = new DirtyRegion(panelWidth, panelHeight);
 
     /**
-     * This class keeps track of the score in the game as well as the a few attributes such as Font, Color and xy coordinates.
+     * This is the message that was drawn over the game on the last frame: NO_OVERLAY, PAUSED_OVERLAY or GAME_OVER_OVERLAY.
      */
-    private Score score;
+    private int drawnOverlay = -1;
 
     /**
-     *	This is used to store a reference to the JFrame
+     * These are the messages that can be drawn over the game.
      */
-    DunkAProf window;
+    private static final int NO_OVERLAY = 0, PAUSED_OVERLAY = 1, GAME_OVER_OVERLAY = 2;
     
     /**
-     * This is used to store the image and location of the paused graphic.
+     * Stores the reference to the background music
      */
-    Paused paused;
-    
+    private MediaPlayer backgroundMusic = null;
+
     /**
-     *  Stores the Graphics object.
+     * This is the component that the game is displayed on. It is the one that has to receive the key events.
      */
-    private Graphics screenGraphics = null;
-    
+    private Component screen;
+
     /**
-     * Stores the Image object reference to off-screen buffer of the game image.
+     * This is the value of System.nanoTime() when the game was launched, or 0 if it isn't known. When it is known, the 
+     * time it took from the launch to the first frame on the screen is printed.
      */
-    private Image screenImage = null;
-    
+    private long launchTime = 0;
+
     /**
-     * Stores the reference to the background music
+     * The file which stores the font used for text in the game, and its point size.
      */
-    private MediaPlayer backgroundMusic = null;
+    private static final String FONT_FILE = "fonts/AGENCYR.TTF";
+    private static final float FONT_SIZE = 36f;
+
+    /**
+     * These are the requests to pause and resume the game. They are handed to the game thread with the player's input 
+     * (the InputJournal's FIRE, FORWARD, LEFT and RIGHT), so they must not be the same as any of those.
+     */
+    private static final int PAUSE = 8, RESUME = 9, TOGGLE_PAUSE = 10;
+
+    /**
+     * This is the request to show or hide the frame time overlay. It is handed to the game thread with the other input.
+     */
+    private static final int TOGGLE_METRICS = 11;
+
+    /**
+     * This is the most input that can be waiting for the next update. The queue is emptied every update (even while the 
+     * game is paused), so it only fills up if the game thread stops for a long time.
+     */
+    private static final int MAX_PENDING_INPUT = 256;
+
+    /**
+     * This holds the input that was given since the last update, in order. Only the event dispatch thread adds to it 
+     * (the key events and the window's pauseGame() and resumeGame() all arrive there) and only the game thread takes 
+     * from it, so it doesn't need any locks.
+     */
+    private final InputQueue pendingInput = new InputQueue(MAX_PENDING_INPUT);
+
+    /**
+     * This records the player's input, or is null if the input isn't recorded. It is opened with -Ddunkaprof.journal=file.
+     */
+    private InputJournal journal = null;
+
+    /**
+     * This measures how long each frame and each part of it takes.
+     */
+    private FrameMetrics frameMetrics;
+
+    /**
+     * This shows the measurements over the game.
+     */
+    private MetricsOverlay metricsOverlay;
+
+    /**
+     * These indicate if the frame time overlay is shown, and if it was shown on the last frame. They are only used on the game thread.
+     */
+    private boolean showMetrics = false, drawnMetrics = false;
     
     /**
-     * The JPanel's constructor. It initializes all the in-game elements.
+     * The JPanel's constructor. It initializes all the in-game elements. Images, sounds and fonts that were loaded in advance
+     * (see preload()) are taken from the caches; anything else is loaded on the spot.
      * 
      */
     public GamePanel() {
@@ -177,38 +253,45 @@ public class GamePanel extends JPanel implements Runnable, KeyListener {
          */
         setPreferredSize( new Dimension(panelWidth, panelHeight) );
 
-        setFocusable(true);
-
         /**
-         *  The JPanel now has focus, so it can receive key events.
+         *  Set up the renderer. It returns the component that the game is displayed on, which is the one that has to receive the key events.
          */
-        requestFocus();
+        renderer = createRenderer();
+        screen = renderer.attach(this);
 
+        screen.setFocusable(true);
 
         /**
-         *  Create the game components
+         *  The screen now has focus, so it can receive key events.
          */
-        professor = new Person("images/professor.png",null,"images/professor.png","images/score+1.png", "images/Splash/splash",80, 60, 70, 118, 85, 0, 1, 19, 100);
-        dean = new Person("images/dean.png",null,"images/dean.png","images/score+1.png","images/Splash/splash", 372, 61, 65, 126, 381, 0, 1, 307, 100); 
-        trustee = new Person("images/trustee.png","sounds/trusteeScream.wav","images/skeleton.png","images/score+3.png","images/AcidSplash/AcidAnimation" ,620, 60, 141, 130, 665, 0, 2, 585, 100);
-        pool[0] = new Pool("images/tankWater.png", 35, 196);
-        pool[1] = new Pool("images/tankWater.png", 321, 196);
-        pool[2] = new Pool("images/tankAcid.png", 607, 196);
-        slider = new Slider("images/slider.png", 0, 517, panelWidth);
-        projectile = new Projectile("images/projectile.png", 0, 500);
-        clock = new Clock("fonts/AGENCYR.TTF", 148, 34, 60);
-        score = new Score(new Color(255, 247, 153), font, 20, 580);
-        
+        screen.requestFocus();
+
+
        /**
-        *  Load the font that will be used in the game.
+        *  Get the font that will be used in the game. The font file is only loaded the first time it is asked for.
         */
-        try {
-        	font = ( Font.createFont(Font.TRUETYPE_FONT, new File("fonts/AGENCYR.TTF")) ).deriveFont(36f);
+        font = FontRegistry.getFont(FONT_FILE, FONT_SIZE);
+        if (font != null) {
             metrics = this.getFontMetrics(font);
-        } catch (FontFormatException e) {
-            e.printStackTrace();
-        } catch (IOException e) {
-            e.printStackTrace();
+        }
+
+        /**
+         *  Create the game components. The game's clock counts down by the length of an update every update, so a game
+         *  always lasts the same number of updates and can be replayed from its input.
+         */
+        world = new GameWorld(TimeUnit.SECONDS.toNanos(1) / tickRate, font);
+        staticLayer = new StaticLayer(background, world.getPools(), panelWidth, panelHeight);
+
+        /**
+         *  Start recording the input if a journal was asked for.
+         */
+        String journalFile = System.getProperty("dunkaprof.journal", "");
+        if (!journalFile.isEmpty()) {
+            try {
+                journal = new InputJournal(journalFile, world);
+            } catch (IOException e) {
+                System.out.println("Unable to record the input to " + journalFile + ": " + e.getMessage());
+            }
         }
         
         /**
@@ -218,12 +301,60 @@ public class GamePanel extends JPanel implements Runnable, KeyListener {
         backgroundMusic.play();
         		
         paused = new Paused(font, metrics, panelWidth, panelHeight);
+
+        /**
+         * Set up the measurements of the frames and the overlay that shows them in the top right corner.
+         */
+        frameMetrics = new FrameMetrics(TimeUnit.SECONDS.toNanos(1) / renderRate);
+        metricsOverlay = new MetricsOverlay(font, panelWidth - MetricsOverlay.WIDTH - 10, 10);
         
         /**
-         * The JPanel is now able to receive key events
+         * The screen is now able to receive key events
          */
-        addKeyListener(this);
+        screen.addKeyListener(this);
     }  	 											// end of GamePanel()
+
+    /**
+     * This starts loading the background, the font and everything in the game world in the background, and opening the
+     * sound line, so that constructing the game panel afterwards doesn't have to wait for any files.
+     * 
+     * @param assets	The asset manager that loads the files.
+     */
+    public static void preload(AssetManager assets) {
+        assets.loadImage("images/background.png", panelWidth, panelHeight);
+        assets.loadFont(FONT_FILE, FONT_SIZE);
+        GameWorld.preload(assets, Level.getDefault());
+        assets.openAudio();
+    }
+
+    /**
+     * This sets the time the game was launched at, so the time it takes to get the first frame on the screen can be reported.
+     * 
+     * @param launchTime	The value of System.nanoTime() when the game was launched.
+     */
+    void setLaunchTime(long launchTime) {
+        this.launchTime = launchTime;
+    }
+
+    /**
+     * This creates the renderer chosen with -Ddunkaprof.renderer. 
+     * 
+     * "bufferstrategy" (the default) displays the game on a Canvas using a BufferStrategy.
+     * "volatile" draws the game to a VolatileImage in video memory. 
+     * "image" draws the game to an image made with createImage().
+     * 
+     * @return The renderer that should be used to put the game on the screen.
+     */
+    private static Renderer createRenderer() {
+        String name = System.getProperty("dunkaprof.renderer", "bufferstrategy");
+        if (name.equalsIgnoreCase("image")) {
+            return new ImageRenderer();
+        } else if (name.equalsIgnoreCase("volatile")) {
+            return new VolatileImageRenderer();
+        } else {
+            return new BufferStrategyRenderer();
+        }
+    }
     
     /**
      * This Notify the JPanel component that it has been added to the JFrame component and starts the game thread.
@@ -234,6 +365,11 @@ public class GamePanel extends JPanel implements Runnable, KeyListener {
     	 * Notify the JPanel component that it has been added to the JFrame component.
     	 */
         super.addNotify();
+
+        /**
+         * If the window is already showing (the game panel took the place of the loading screen), give the screen the focus now.
+         */
+        screen.requestFocusInWindow();
         
         /**
          * Start the thread.
@@ -247,6 +383,10 @@ public class GamePanel extends JPanel implements Runnable, KeyListener {
     private void startGame() { 					    // Initialize and start the thread
         if (animator == null || !running) {
         	
+            /**
+             * The game is marked as running before the thread starts, so a stopGame() that comes before the first frame isn't lost.
+             */
+            running = true;
             animator = new Thread(this);
             animator.start();
         }
@@ -254,123 +394,330 @@ public class GamePanel extends JPanel implements Runnable, KeyListener {
     
     /**
      * This is called by the user to stop execution of JPanel.
-     * Currently, this is only used to stop the game when the game is over.
+     * Currently, this is only used to stop the game when the window is closed.
+     * 
+     * It only tells the game thread to stop and waits for it to finish its last frame. The game thread then ends the 
+     * journal and closes the frame metrics itself, so they are never written by two threads at once.
      */
     public void stopGame() {						
         running = false;
+        Thread thread = animator;
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join(STOP_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        AudioEngine.getInstance().close();
     }
 
     /**
      *  This repeatedly updates the in-game logic, renders the game to an off-screen buffer, paints the off screen buffer to the screen,
-     *  and tells the thread to sleep a little.
+     *  and tells the thread to sleep until the next frame is due.
+     *
+     *  The game logic is updated with a fixed time step (tickRate times a second) no matter how long rendering takes. The time that
+     *  has passed since the last frame is added to an accumulator and as many updates as fit into it are performed, so updates that were
+     *  missed because the machine was busy are caught up. Whatever is left over in the accumulator is used to draw the moving objects
+     *  part of the way between their previous and current positions.
      */
     public void run() {							    // Repeatedly update, render, sleep
-        running = true;
+        final long tickTime = world.getTickTime();
+        final long frameTime = TimeUnit.SECONDS.toNanos(1) / renderRate;
+        long accumulator = 0;
+        long previousTime = System.nanoTime();
+        long nextFrame = previousTime;
+
+        /**
+         * The clock starts with the first update, the same way it does when a game is replayed.
+         */
+        world.getClock().resumeClock();
+
         while(running) {
-            gameUpdate();							// The game state is updated.
-            gameRender();							// Render the game state to a buffer.
-            paintScreen();							// Paint with the buffer.
+            long currentTime = System.nanoTime();
+            accumulator += Math.min(currentTime - previousTime, MAX_FRAME_TIME);
+            previousTime = currentTime;
+
+            int updates = 0;
+            while(accumulator >= tickTime) {
+                gameUpdate();						// The game state is updated.
+                accumulator -= tickTime;
+                updates++;
+            }
+            long updateEnd = System.nanoTime();
+
+            /**
+             * While the game is paused or over, no updates are made, so everything is drawn where it is now. Drawing it 
+             * between its previous and current position would shake it back and forth as the accumulator keeps cycling.
+             */
+            float interpolation = isPaused || world.isGameOver() ? 1f : (float) accumulator / tickTime;
+            gameRender(interpolation);				// Render the game state to a buffer.
+            long renderEnd = System.nanoTime();
+            paintScreen(interpolation);				// Paint with the buffer.
+            long paintEnd = System.nanoTime();
+
+            frameMetrics.endFrame(currentTime, updates, updateEnd - currentTime, renderEnd - updateEnd, paintEnd - renderEnd);
+
+            if(launchTime != 0) {
+                reportColdStart();
+            }
+
+            /**
+             * Schedule the next frame relative to the previous one so the frame rate does not drift. If rendering has
+             * fallen more than a frame behind, start the schedule over instead of rushing to catch up.
+             */
+            nextFrame += frameTime;
+            long sleepTime = nextFrame - System.nanoTime();
+            if(sleepTime < -frameTime) {
+                nextFrame = System.nanoTime();
+            }
             try {
-                Thread.sleep(20);					// Sleep a bit
+                if(sleepTime > 0) {
+                    Thread.sleep(TimeUnit.NANOSECONDS.toMillis(sleepTime), (int) (sleepTime % 1000000));	// Sleep until the next frame
+                } else {
+                    Thread.yield();
+                }
             } catch(InterruptedException ex) {}
         }
+
+        /**
+         * The loop has ended, either because the game is over or because stopGame() was called. A game that was closed 
+         * before its time ran out is written to the journal as quit.
+         */
+        if (journal != null) {
+            journal.quit(world);
+        }
+        frameMetrics.close();
+        frameMetrics.printSummary();
     }												// end of run()
 
+    /**
+     * This prints how long it took from the launch of the game (and from the start of the JVM) to the first frame on the screen.
+     */
+    private void reportColdStart() {
+        long now = System.nanoTime();
+        System.out.println("Cold start: first frame " + TimeUnit.NANOSECONDS.toMillis(now - launchTime) + " ms after launch, "
+                           + ManagementFactory.getRuntimeMXBean().getUptime() + " ms after the JVM started");
+        launchTime = 0;
+    }
+
     /**
     * Draws the game logic to the off-screen image
+    *
+    * @param interpolation	How far (from 0 to 1) the game is between the last update and the next one. This is used to
+    * 						draw the moving objects between their previous and current positions.
     */
-    private void gameRender() {
-
-        // Draw the current frame to an image buffer
-        if (screenImage == null) {
-            screenImage = createImage(panelWidth, panelHeight);
-            if (screenImage == null) {
-                System.out.println("The ScreenImage is null");
-                return;
-            } else {
-                screenGraphics = screenImage.getGraphics();
+    private void gameRender(float interpolation) {
+
+        // Draw the current frame to the renderer's buffer
+        Graphics screenGraphics = renderer.getDrawGraphics();
+        if (screenGraphics == null) {
+            return;
+        }
+
+        try {
+            drawFrame(screenGraphics, interpolation, renderer.hasPreviousFrame());
+        } finally {
+            screenGraphics.dispose();
+        }
+
+        // Used for finding out the location of objects on screen during development
+        //System.out.println("" + this.getMousePosition().getX() + " " + this.getMousePosition().getY() + "");
+    }
+
+    /**
+     * Draws a frame. If the buffer still holds the previous frame, only the parts of the screen that changed since then are
+     * drawn again: the game is drawn once for each changed rectangle, clipped to that rectangle, so the background, the tanks
+     * and the sprites are only copied where something moved. Otherwise the whole game is drawn.
+     *
+     * @param screenGraphics	The Graphics object to draw the game with.
+     * @param interpolation		How far (from 0 to 1) the game is between the last update and the next one.
+     * @param previousFrame		True if the buffer that is drawn to still holds the previous frame.
+     */
+    void drawFrame(Graphics screenGraphics, float interpolation, boolean previousFrame) {
+        dirtyRegion.clear();
+        markDirty(interpolation);
+
+        if (!previousFrame || dirtyRegion.isAll()) {
+            drawGame(screenGraphics, interpolation);
+        } else {
+            for (int i = 0; i < dirtyRegion.getCount(); i++) {
+                screenGraphics.setClip(dirtyRegion.getX(i), dirtyRegion.getY(i), dirtyRegion.getWidth(i), dirtyRegion.getHeight(i));
+                drawGame(screenGraphics, interpolation);
             }
         }
-        if(!isPaused && !gameOver) {
-            // Clear the background
-            background.draw(screenGraphics);
-
-            // Draw the professor, dean, trustee, slider, pools, and projectile to the image buffer
-            professor.draw(screenGraphics);
-            dean.draw(screenGraphics);
-            trustee.draw(screenGraphics);
-            slider.draw(screenGraphics);
-            pool[0].draw(screenGraphics);
-            pool[1].draw(screenGraphics);
-            pool[2].draw(screenGraphics);
-            projectile.draw(screenGraphics);
-            clock.draw(screenGraphics);
-            score.draw(screenGraphics);
+    }
+
+    /**
+     * Adds the parts of the screen that changed since the last frame to the dirty region. Every object that is drawn is asked
+     * every frame, even if the whole frame is going to be drawn, so that each one knows where it was drawn on the last frame.
+     *
+     * @param interpolation		How far (from 0 to 1) the game is between the last update and the next one.
+     */
+    private void markDirty(float interpolation) {
+        world.getDunkees().markDirty(dirtyRegion, interpolation);
+        world.getSlider().markDirty(dirtyRegion, interpolation);
+        world.getProjectiles().markDirty(dirtyRegion, interpolation);
+        world.getClock().markDirty(dirtyRegion);
+        world.getScore().markDirty(dirtyRegion);
+
+        /**
+         * The paused and game over messages cover most of the screen, so the whole screen is drawn when they appear or disappear.
+         */
+        int overlay = isPaused ? PAUSED_OVERLAY : world.isGameOver() ? GAME_OVER_OVERLAY : NO_OVERLAY;
+        if (overlay != drawnOverlay) {
+            dirtyRegion.markAll();
+            drawnOverlay = overlay;
+        }
+
+        /**
+         * The frame time overlay is drawn again every frame while it is shown, and the game is drawn in its place once it is hidden.
+         */
+        if (showMetrics || drawnMetrics) {
+            metricsOverlay.markDirty(dirtyRegion);
+            drawnMetrics = showMetrics;
+        }
+    }
+
+    /**
+     * Draws the whole game. This doesn't depend on the renderer, so it can draw the game to any image (the benchmarks use this).
+     * Only the part of the game inside the Graphics object's clip is actually drawn.
+     *
+     * @param screenGraphics	The Graphics object to draw the game with.
+     * @param interpolation		How far (from 0 to 1) the game is between the last update and the next one.
+     */
+    void drawGame(Graphics screenGraphics, float interpolation) {
+        // Clear the screen with the background and the pools
+        staticLayer.draw(screenGraphics);
+
+        // Draw the professor, dean and trustee. The pools are in front of them, so where a person is over a pool,
+        // the pool is taken out before he is drawn and drawn again after.
+        DunkeeStore dunkees = world.getDunkees();
+        for (int i = 0; i < dunkees.getCount(); i++) {
+            dunkees.getDrawBounds(i, interpolation, personBounds);
+            staticLayer.clearTanks(screenGraphics, personBounds);
+            dunkees.draw(screenGraphics, i, interpolation);
+            staticLayer.drawTanks(screenGraphics, personBounds);
+        }
+
+        // Draw the slider and the projectiles to the image buffer
+        world.getSlider().draw(screenGraphics, interpolation);
+        world.getProjectiles().draw(screenGraphics, interpolation);
+        world.getClock().draw(screenGraphics);
+
+        if(!isPaused && !world.isGameOver()) {
+            world.getScore().draw(screenGraphics);
 
         } else if (this.isPaused){ 						
-        	
-        	// Draw the game paused message to the screen
-        	paused.draw(screenGraphics);
-        	
+
+            // Draw the game paused message to the screen
+            paused.draw(screenGraphics);
+
         } else {
-        	clock.draw(screenGraphics);
-        	this.gameOverMessage(screenGraphics);
-        	
+            this.gameOverMessage(screenGraphics);
+
         }
 
-        // Used for finding out the location of objects on screen during development
-        //System.out.println("" + this.getMousePosition().getX() + " " + this.getMousePosition().getY() + "");
+        if (showMetrics) {
+            metricsOverlay.draw(screenGraphics, frameMetrics);
+        }
+    }
+
+    /**
+     * This returns the game that is being played on this panel.
+     * 
+     * @return The game that is being played.
+     */
+    GameWorld getWorld() {
+        return world;
     }
 
     /**
-    * Updates the game logic.
+    * Updates the game logic. The input that was given since the last update is handed to the game first.
     */
     private void gameUpdate() {
-        if (!gameOver && !isPaused) {
-            slider.move(5);
-
-            // Align the center of the platform with the center of the projectile.
-            projectile.move((slider.getxPosition() + (slider.getWidth()/2)) - (projectile.getWidth()/2),
-                            (slider.getyPosition() + (slider.getHeight()/2)) - (projectile.getHeight()/2));
-
-            // For each person, check if the projectile or pool has collided with that person. If it has, move them (dunk or undunk them).
-            professor.move(pool[0], projectile,score, 15);
-            dean.move(pool[1], projectile,score, 15);
-            trustee.move(pool[2], projectile,score, 15);
-        } else if (gameOver){
+        applyInput();
+        if (world.isGameOver()) {
         	running = false;
         	// If the player has run out of time, then the game is over.
+        } else if (!isPaused) {
+            world.update();
+            if (world.isGameOver() && journal != null) {
+                journal.end(world);
+            }
+        }
+    }
+
+    /**
+     * This adds an input to the ones that are handed to the game at the start of the next update. Once the game loop has 
+     * ended (the game is over or was stopped) nothing takes input from the queue anymore, so the input is ignored. If the 
+     * queue is full, the input is dropped.
+     * 
+     * @param input	The InputJournal's FIRE, FORWARD, LEFT or RIGHT, or PAUSE, RESUME or TOGGLE_PAUSE.
+     */
+    private void queueInput(int input) {
+        if (running) {
+            pendingInput.offer(input);
         }
-        if (clock.outOfTime()) {
-        	gameOver = true;
+    }
+
+    /**
+     * This hands the input that was given since the last update to the game, in the order it was given, and records it 
+     * with the number of the update it is given on. Pausing and resuming aren't recorded, since no updates are made 
+     * while the game is paused.
+     */
+    private void applyInput() {
+        int input;
+        while ((input = pendingInput.poll()) != InputQueue.EMPTY) {
+            switch (input) {
+            case PAUSE:
+                setPaused(true);
+                break;
+            case RESUME:
+                setPaused(false);
+                break;
+            case TOGGLE_PAUSE:
+                setPaused(!isPaused);
+                break;
+            case TOGGLE_METRICS:
+                showMetrics = !showMetrics;
+                break;
+            default:
+                if (journal != null && !world.isGameOver()) {
+                    journal.record(world.getTick(), input);
+                }
+                InputJournal.apply(input, world);
+                break;
+            }
         }
-        
-        
     }
     
     /**
     *    Prints the game over message to the screen
     */
     private void gameOverMessage (Graphics graphics) {			// Place the game over message in the center
-        String message = "Game Over. Your Score: " + score.getScore() + " Press enter to continue";
-        int x = (panelWidth - metrics.stringWidth(message))/2;	// This is the code to calculate x and y values of the game over message.
-        int y = (panelHeight - metrics.getHeight())/2;
-        graphics.setColor(Color.BLACK);
-        graphics.setFont(font);
-        graphics.drawString(message, x, y);
+        if (gameOverLabel == null) {
+            // The score doesn't change once the game is over, so the message only has to be made once.
+            String message = "Game Over. Your Score: " + world.getScore().getScore() + " Press enter to continue";
+            gameOverLabel = new TextLabel(message, font, Color.BLACK);
+        }
+        int y = (panelHeight - metrics.getHeight())/2;			// This is the code to calculate the y value of the game over message.
+        gameOverLabel.drawCentered(graphics, panelWidth, y);
     } 															// end of gameOverMessage()
 
     /**
-     *  Use active rendering to put the buffered image on-screen.
+     *  Use active rendering to put the buffered image on-screen. If the buffer lost its contents before it
+     *  could be shown, the frame is drawn again.
+     *
+     * @param interpolation	This is passed to gameRender() if the frame has to be drawn again.
      */
-    private void paintScreen() {
-        Graphics graphics;
+    private void paintScreen(float interpolation) {
         try {
-            graphics = this.getGraphics();
-            if ( graphics != null && screenImage != null ) {
-                graphics.drawImage(screenImage, 0, 0, null);
+            int attempts = 1;
+            while(!renderer.show() && attempts < MAX_RENDER_ATTEMPTS) {
+                gameRender(interpolation);
+                attempts++;
             }
-            graphics.dispose();
         } catch (Exception e) {
             System.out.println("Graphics context error: " + e);
         }
@@ -387,7 +734,8 @@ public class GamePanel extends JPanel implements Runnable, KeyListener {
      */
     @Override
     public void keyPressed(KeyEvent event) {
-        if(event.getKeyCode() == KeyEvent.VK_ENTER && gameOver) {
+        if(event.getKeyCode() == KeyEvent.VK_ENTER && world.isGameOver()) {
+        	AudioEngine.getInstance().close();
         	System.exit(0);
         }
     }
@@ -402,27 +750,28 @@ public class GamePanel extends JPanel implements Runnable, KeyListener {
      * When 'UpArrow' is pressed, the projectile will move forward (up).
      * When 'LeftArrow' is pressed, the projectile will move left.
      * When 'RightArrow' is pressed, teh projectile will move right.
+     * When 'F3' is pressed, the frame time overlay is shown or hidden.
      */
     @Override
     public void keyReleased(KeyEvent event) {
     	switch(event.getKeyCode()) {
     	case KeyEvent.VK_SPACE:
-    		projectile.fire();
+    		queueInput(InputJournal.FIRE);
     		break;
     	case KeyEvent.VK_ESCAPE:
-    		if(isPaused) {
-                this.resumeGame();
-            } else {
-                this.pauseGame();
-            } break;
+    		queueInput(TOGGLE_PAUSE);
+    		break;
     	case  KeyEvent.VK_LEFT:
-    		projectile.setDirection(Direction.LEFT);
+    		queueInput(InputJournal.LEFT);
     		break;
     	case KeyEvent.VK_RIGHT:
-    		projectile.setDirection(Direction.RIGHT);
+    		queueInput(InputJournal.RIGHT);
     		break;
     	case KeyEvent.VK_UP:
-    		projectile.setDirection(Direction.FORWARD);
+    		queueInput(InputJournal.FORWARD);
+    		break;
+    	case KeyEvent.VK_F3:
+    		queueInput(TOGGLE_METRICS);
     		break;
     	default:
     		break;
@@ -438,29 +787,38 @@ public class GamePanel extends JPanel implements Runnable, KeyListener {
     }
 
     /**
-     * This is used to pause the game.
+     * This is used to pause the game. The game is paused at the start of the next update.
      */
     public void pauseGame() {
-        isPaused = true;
-        
-        /**
-         *  If the game is paused, then the clock should be stopped
-         */
-        clock.stopClock();
-
-
+        queueInput(PAUSE);
     }
 
     /**
-     * This resumes the game when it is paused.
+     * This resumes the game when it is paused. The game is resumed at the start of the next update.
      */
     public void resumeGame() {
-        isPaused = false;
+        queueInput(RESUME);
+    }
+
+    /**
+     * This pauses or resumes the game. It is called on the game thread between two updates.
+     * 
+     * @param paused	True to pause the game, false to resume it.
+     */
+    private void setPaused(boolean paused) {
+        isPaused = paused;
         
-        /**
-         * If the game is not paused, the game should be resumed.
-         */
-        clock.resumeClock();
+        if (paused) {
+            /**
+             *  If the game is paused, then the clock should be stopped
+             */
+            world.getClock().stopClock();
+        } else {
+            /**
+             * If the game is not paused, the game should be resumed.
+             */
+            world.getClock().resumeClock();
+        }
     }
 
 
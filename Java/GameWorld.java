@@ -0,0 +1,336 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This holds the state of a game (the people, the tanks, the slider, the projectiles, the score and the clock) and 
+ * the logic that updates it. It doesn't draw anything or handle any input itself, so a game can be stepped without a 
+ * window. GamePanel uses it to run the game on the screen, and HeadlessSimulation uses it to play games as fast as possible.
+ * 
+ * The game is advanced one fixed time step at a time by calling update(). Everything moves a fixed distance per update,
+ * so a game played through GamePanel and a game played through HeadlessSimulation with the same input on the same 
+ * updates end with the same score.
+ * 
+ * @author Osher Cohen
+ */
+public class GameWorld {
+
+    /**
+     * This is the width of the playing field.
+     */
+    public static final int WIDTH = 800;
+
+    /**
+     * This is the height of the playing field.
+     */
+    public static final int HEIGHT = 600;
+
+    /**
+     * This is the most projectiles that can fly at once. It can be changed with -Ddunkaprof.maxProjectiles=n.
+     */
+    private static final int MAX_PROJECTILES = Integer.getInteger("dunkaprof.maxProjectiles", 8);
+
+    /**
+     * This is the shortest time between two shots in milliseconds. It can be changed with -Ddunkaprof.fireInterval=ms.
+     */
+    private static final int FIRE_INTERVAL = Integer.getInteger("dunkaprof.fireInterval", 100);
+
+    /**
+     * This is the width and height of a cell of the collision grid. It is about the size of a target.
+     */
+    private static final int GRID_CELL_SIZE = 64;
+
+    /**
+     * This is the length of one update in nanoseconds.
+     */
+    private final long tickTime;
+
+    /**
+     * This is the layout of the game.
+     */
+    private final Level level;
+
+    /**
+     * This indicates that the game is over.
+     */
+    private boolean gameOver = false;
+
+    /**
+     * This is the number of updates since the game started.
+     */
+    private long tick = 0;
+
+    /**
+     * This holds the people who can be dunked (the professor, the dean and the trustee) in the order they are drawn.
+     */
+    private DunkeeStore dunkees;
+
+    /**
+     * This is the object used as a starting point for our projectiles in the game. 
+     * This object slides back and forth on an x axis just below the dunk tanks.
+     */
+    private Slider slider;
+
+    /**
+     * This array of Pool objects are the dunk tanks used to dunk the faculty members.
+     * A pool is considered a dunk tank.
+     */
+    private Pool [] pool;
+
+    /**
+     * The projectiles used to hit the targets near the faculty.
+     */
+    private ProjectilePool projectiles;
+
+    /**
+     * Represents the Game clock/time limit for this game.
+     */
+    private Clock clock;
+
+    /**
+     * This class keeps track of the score in the game as well as the a few attributes such as Font, Color and xy coordinates.
+     */
+    private Score score;
+
+    /**
+     * This is used to find which projectiles hit which targets. The targets are added in the same order as the 
+     * people, so the id of a target is the index of its person in the DunkeeStore.
+     */
+    private final CollisionGrid collisionGrid = new CollisionGrid(WIDTH, HEIGHT, GRID_CELL_SIZE);
+
+    /**
+     * These are filled by the collision grid with the projectiles and targets that were hit during an update. The grid 
+     * reports each projectile and target that overlap once, so they are made big enough for every projectile to hit 
+     * every target, and no hit is ever left out however crowded the update is.
+     */
+    private final int [] hitProjectiles, hitTargets;
+
+    /**
+     * This creates a new game with the default level.
+     * 
+     * @param tickTime	The length of one update in nanoseconds. The clock counts down by this much every update.
+     * @param font		The font used to draw the score. This can be null if the game is never drawn.
+     */
+    public GameWorld(long tickTime, Font font) {
+        this(tickTime, font, Level.getDefault());
+    }
+
+    /**
+     * This creates a new game.
+     * 
+     * @param tickTime	The length of one update in nanoseconds. The clock counts down by this much every update.
+     * @param font		The font used to draw the score. This can be null if the game is never drawn.
+     * @param level		The layout of the game.
+     */
+    public GameWorld(long tickTime, Font font, Level level) {
+        this.tickTime = tickTime;
+        this.level = level;
+
+        /**
+         *  Create the game components
+         */
+        pool = new Pool[level.getTankCount()];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = new Pool(level.getTankImage(i), level.getTankX(i), level.getTankY(i));
+        }
+
+        /**
+         *  Each person stands above his tank.
+         */
+        dunkees = new DunkeeStore(level.getDunkeeCount());
+        for (int i = 0; i < level.getDunkeeCount(); i++) {
+            dunkees.add(level.getDunkeeType(i), level.getDunkeeX(i), level.getDunkeeY(i), level.getTargetX(i), level.getTargetY(i), 
+                        level.getSplashX(i), level.getSplashY(i), pool[level.getDunkeeTank(i)]);
+        }
+        slider = new Slider(level.getSliderImage(), level.getSliderX(), level.getSliderY(), WIDTH);
+        long fireInterval = TimeUnit.MILLISECONDS.toNanos(FIRE_INTERVAL);
+        projectiles = new ProjectilePool("images/projectile.png", MAX_PROJECTILES, (int) ((fireInterval + tickTime - 1) / tickTime), 0, 500);
+        clock = new Clock("fonts/AGENCYR.TTF", level.getClockX(), level.getClockY(), level.getTimeLimit());
+        score = new Score(new Color(255, 247, 153), font, level.getScoreX(), level.getScoreY());
+
+        for (int i = 0; i < dunkees.getCount(); i++) {
+            collisionGrid.addTarget(dunkees.getTargetXPosition(i), dunkees.getTargetYPosition(i), dunkees.getTargetWidth(), dunkees.getTargetHeight());
+        }
+        hitProjectiles = new int[projectiles.getCapacity() * dunkees.getCount()];
+        hitTargets = new int[hitProjectiles.length];
+    }
+
+    /**
+     * This starts loading the images and sounds of the game components in the background, so that constructing the game world
+     * afterwards doesn't have to wait for any files. It has to ask for the same files at the same sizes as the constructor.
+     * 
+     * @param assets	The asset manager that loads the files.
+     * @param level		The level the game will be played on.
+     */
+    public static void preload(AssetManager assets, Level level) {
+        for (DunkeeType type : level.getTypes()) {
+            type.preload(assets);
+        }
+        for (int i = 0; i < level.getTankCount(); i++) {
+            assets.loadImage(level.getTankImage(i), 160, 210);
+        }
+        assets.loadSprite(level.getSliderImage(), 0, 0);
+        assets.loadSprite("images/projectile.png", 20, 20);
+    }
+
+    /**
+    * Updates the game logic by one time step.
+    */
+    public void update() {
+        if (!gameOver) {
+            slider.move(level.getSliderSpeed());
+
+            // Move the projectiles. New projectiles are fired with their center on the center of the platform.
+            projectiles.move((slider.getxPosition() + (slider.getWidth()/2)) - (projectiles.getWidth()/2),
+                             (slider.getyPosition() + (slider.getHeight()/2)) - (projectiles.getHeight()/2));
+
+            // Move the people (dunk or undunk them). Each one sinks into his own tank.
+            dunkees.update(level.getSinkSpeed(), tickTime);
+
+            // Dunk the people whose targets were hit by a projectile.
+            collisionGrid.clearProjectiles();
+            for (int i = 0; i < projectiles.getActiveCount(); i++) {
+                collisionGrid.addProjectile(i, projectiles.getXPosition(i), projectiles.getYPosition(i), 
+                                            projectiles.getWidth(), projectiles.getHeight());
+            }
+            int hits = collisionGrid.findCollisions(hitProjectiles, hitTargets);
+            for (int i = 0; i < hits; i++) {
+                if (dunkees.isHittable(hitTargets[i])) {
+                    dunkees.hit(hitTargets[i], score);
+                }
+            }
+
+            clock.advance(tickTime);
+            tick++;
+        }
+
+        // If the player has run out of time, then the game is over.
+        if (clock.outOfTime()) {
+        	gameOver = true;
+        }
+    }
+
+    /**
+     * This fires a projectile on the next update.
+     */
+    public void fire() {
+        projectiles.fire();
+    }
+
+    /**
+     * This sets the direction the next projectiles fly in.
+     * 
+     * @param direction	The direction the next projectiles fly in.
+     */
+    public void setDirection(Direction direction) {
+        projectiles.setDirection(direction);
+    }
+
+    /**
+     * This is used to indicate that the game is over.
+     * 
+     * @return True if the player has run out of time.
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * This returns the number of updates since the game started.
+     * 
+     * @return The number of updates since the game started.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * This returns the length of one update.
+     * 
+     * @return The length of one update in nanoseconds.
+     */
+    public long getTickTime() {
+        return tickTime;
+    }
+
+    /**
+     * This returns the most projectiles that can fly at once.
+     * 
+     * @return The most projectiles that can fly at once.
+     */
+    public static int getMaxProjectiles() {
+        return MAX_PROJECTILES;
+    }
+
+    /**
+     * This returns the shortest time between two shots.
+     * 
+     * @return The shortest time between two shots in milliseconds.
+     */
+    public static int getFireInterval() {
+        return FIRE_INTERVAL;
+    }
+
+    /**
+     * This returns the layout of the game.
+     * 
+     * @return The level the game is played on.
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * This returns the people who can be dunked.
+     * 
+     * @return The store that holds the professor, the dean and the trustee.
+     */
+    public DunkeeStore getDunkees() {
+        return dunkees;
+    }
+
+    /**
+     * This returns the dunk tanks.
+     * 
+     * @return The dunk tanks.
+     */
+    public Pool [] getPools() {
+        return pool;
+    }
+
+    /**
+     * This returns the slider.
+     * 
+     * @return The slider.
+     */
+    public Slider getSlider() {
+        return slider;
+    }
+
+    /**
+     * This returns the projectiles.
+     * 
+     * @return The projectiles.
+     */
+    public ProjectilePool getProjectiles() {
+        return projectiles;
+    }
+
+    /**
+     * This returns the clock.
+     * 
+     * @return The clock.
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * This returns the score.
+     * 
+     * @return The score.
+     */
+    public Score getScore() {
+        return score;
+    }
+}
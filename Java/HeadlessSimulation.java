@@ -0,0 +1,130 @@
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This plays games without a window, sound or drawing, as fast as the computer can. Each game is advanced one fixed 
+ * time step at a time and gets its input from an InputScript, so the same script always gives the same score, and
+ * that score is the same one the player would get in the window by pressing the same keys on the same updates.
+ * 
+ * It is used to test the game logic and to try out changes to the game's balance. It can be run with
+ * "java HeadlessSimulation [games] [ticks between shots]".
+ */
+public class HeadlessSimulation {
+
+    /**
+     * This is the length of one update used when none is given. It is the same as the game's default of 50 updates a second.
+     */
+    public static final long DEFAULT_TICK_TIME = TimeUnit.SECONDS.toNanos(1) / 50;
+
+    /**
+     * This is the length of one update in nanoseconds.
+     */
+    private final long tickTime;
+
+    /**
+     * This creates a simulation. Since a simulation makes no sound, the audio engine is muted.
+     * 
+     * @param tickTime	The length of one update in nanoseconds.
+     */
+    public HeadlessSimulation(long tickTime) {
+        this.tickTime = tickTime;
+        AudioEngine.getInstance().setMuted(true);
+    }
+
+    /**
+     * This plays one whole game.
+     * 
+     * @param script	The script that plays the game.
+     * @return The final state of the game.
+     */
+    public GameWorld play(InputScript script) {
+        GameWorld world = new GameWorld(tickTime, null);
+        world.getClock().resumeClock();
+        while (!world.isGameOver()) {
+            script.apply(world.getTick(), world);
+            world.update();
+        }
+        return world;
+    }
+
+    /**
+     * This plays a game for a number of updates, or until it is over.
+     * 
+     * @param world		The game to play. The clock must have been started.
+     * @param script	The script that plays the game.
+     * @param ticks		The most updates to play.
+     */
+    public static void step(GameWorld world, InputScript script, long ticks) {
+        for (long i = 0; i < ticks && !world.isGameOver(); i++) {
+            script.apply(world.getTick(), world);
+            world.update();
+        }
+    }
+
+    /**
+     * This plays a number of games with a script that fires every few updates and prints the scores and how fast the games were played.
+     * 
+     * @param args	The number of games to play (100 by default) and the number of updates between shots (10 by default).
+     */
+    public static void main(String [] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int fireInterval = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        HeadlessSimulation simulation = new HeadlessSimulation(DEFAULT_TICK_TIME);
+        InputScript script = new Autofire(fireInterval);
+
+        long totalScore = 0;
+        long totalTicks = 0;
+        int lastScore = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            GameWorld world = simulation.play(script);
+            lastScore = world.getScore().getScore();
+            totalScore += lastScore;
+            totalTicks += world.getTick();
+        }
+        long elapsed = System.nanoTime() - start;
+        double seconds = elapsed / (double) TimeUnit.SECONDS.toNanos(1);
+
+        System.out.println("Games played:      " + games);
+        System.out.println("Updates per game:  " + totalTicks / games);
+        System.out.println("Last score:        " + lastScore);
+        System.out.println("Average score:     " + (double) totalScore / games);
+        System.out.println("Games per second:  " + String.format("%.1f", games / seconds));
+        System.out.println("Updates per second: " + String.format("%.0f", totalTicks / seconds));
+        AudioEngine.getInstance().close();
+    }
+
+    /**
+     * A script that fires every few updates and changes the direction of the projectile every shot,
+     * going forward, left, forward, right and so on.
+     */
+    public static class Autofire implements InputScript {
+
+        /**
+         * The directions the shots are fired in, in order.
+         */
+        private static final Direction [] PATTERN = { Direction.FORWARD, Direction.LEFT, Direction.FORWARD, Direction.RIGHT };
+
+        /**
+         * The number of updates between shots.
+         */
+        private final int interval;
+
+        /**
+         * This creates the script.
+         * 
+         * @param interval	The number of updates between shots.
+         */
+        public Autofire(int interval) {
+            this.interval = interval;
+        }
+
+        @Override
+        public void apply(long tick, GameWorld world) {
+            if (tick % interval == 0) {
+                world.setDirection(PATTERN[(int) ((tick / interval) % PATTERN.length)]);
+                world.fire();
+            }
+        }
+    }
+}
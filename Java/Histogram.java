@@ -0,0 +1,149 @@
+import java.util.Arrays;
+
+/**
+ * This counts how often each value (a time in nanoseconds, a number of bytes) was recorded, so that percentiles such as
+ * the median or the 99th percentile can be found without keeping the values. It works like an HdrHistogram: the values
+ * are sorted into a fixed set of buckets whose width doubles with every power of two, with 32 buckets for each power of
+ * two, so a value is known to within about 3% however big it is. Values from 0 to 2^41 - 1 (about 36 minutes in
+ * nanoseconds) can be told apart; bigger values are counted as the biggest one.
+ *
+ * The buckets are made when the histogram is, so recording a value doesn't create any objects and only takes a few
+ * instructions. A histogram must only be used by one thread.
+ */
+public final class Histogram {
+
+    /**
+     * This is the number of bits of a value that are kept. Values below 2^SUB_BUCKET_BITS each have their own bucket.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * This is the number of buckets for each power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * This is the biggest value that is told apart from the values below it.
+     */
+    public static final long MAX_VALUE = (1L << 41) - 1;
+
+    /**
+     * This is the number of times each bucket was recorded.
+     */
+    private final long [] counts = new long[bucketIndex(MAX_VALUE) + 1];
+
+    /**
+     * These are the number of values recorded, their sum and the smallest and biggest of them.
+     */
+    private long count = 0, total = 0, min = Long.MAX_VALUE, max = 0;
+
+    /**
+     * This records a value.
+     *
+     * @param value	The value. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[bucketIndex(Math.min(value, MAX_VALUE))]++;
+        count++;
+        total += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * This works out the bucket a value is counted in. The bucket is found from the highest SUB_BUCKET_BITS + 1 bits
+     * of the value and the number of bits that are dropped below them.
+     *
+     * @param value	The value. It must be between 0 and MAX_VALUE.
+     * @return The index of the bucket.
+     */
+    private static int bucketIndex(long value) {
+        int shift = Math.max(63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS, 0);
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * This works out the biggest value that is counted in a bucket.
+     *
+     * @param index	The index of the bucket.
+     * @return The biggest value of the bucket.
+     */
+    private static long highestValue(int index) {
+        int shift = Math.max(index / SUB_BUCKETS - 1, 0);
+        long subBucket = index - shift * SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * This returns the value below which a percentage of the values are. It is the biggest value of the bucket the
+     * percentile falls into, so it is never less than the real percentile, but can be about 3% more. It is never more than
+     * the biggest value recorded.
+     *
+     * @param percentile	The percentage, from 0 to 100 (50 for the median).
+     * @return The value, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max((long) Math.ceil(percentile / 100 * count), 1);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * This returns the number of values recorded.
+     *
+     * @return The number of values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * This returns the average of the values recorded.
+     *
+     * @return The average, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * This returns the smallest value recorded.
+     *
+     * @return The smallest value, or 0 if nothing was recorded.
+     */
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * This returns the biggest value recorded.
+     *
+     * @return The biggest value, or 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * This forgets all the values recorded.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+}
@@ -0,0 +1,64 @@
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Image;
+
+import javax.swing.JPanel;
+
+/**
+ * This renderer draws the game to an image made with createImage() and then copies that image to the JPanel.
+ * 
+ * The Image object is used as the off-screen buffer because, unlike the screen, it keeps what was drawn to it.
+ * The buffer is drawn to through the Graphics object returned by getDrawGraphics(), and then the whole image
+ * is drawn to the JPanel's Graphics object in show().
+ */
+public class ImageRenderer implements Renderer {
+
+    /**
+     * This is the panel that the game is displayed in.
+     */
+    private JPanel panel;
+
+    /**
+     * Stores the Image object reference to off-screen buffer of the game image.
+     */
+    private Image screenImage = null;
+
+    /**
+     * This indicates that the image holds the last frame. It is false until the image has been drawn to once.
+     */
+    private boolean previousFrame = false;
+
+    @Override
+    public Component attach(JPanel panel) {
+        this.panel = panel;
+        return panel;
+    }
+
+    @Override
+    public Graphics getDrawGraphics() {
+        previousFrame = screenImage != null;
+        if (screenImage == null) {
+            screenImage = panel.createImage(panel.getPreferredSize().width, panel.getPreferredSize().height);
+            if (screenImage == null) {
+                System.out.println("The ScreenImage is null");
+                return null;
+            }
+        }
+        return screenImage.getGraphics();
+    }
+
+    @Override
+    public boolean hasPreviousFrame() {
+        return previousFrame;
+    }
+
+    @Override
+    public boolean show() {
+        Graphics graphics = panel.getGraphics();
+        if (graphics != null) {
+            graphics.drawImage(screenImage, 0, 0, null);
+            graphics.dispose();
+        }
+        return true;
+    }
+}
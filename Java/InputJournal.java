@@ -0,0 +1,432 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This records the player's input to a file, so that a game played in the window can be played again without a window
+ * (see ReplayJournal) and give exactly the same score. The game panel hands the input to the game at the start of an
+ * update, and each input is written with the number of that update, which is all a replay needs: the game is the same
+ * from one update to the next no matter when the keys were pressed or how long the updates took in real time.
+ *
+ * Games are only ever added to the end of the file, so one file can hold many games. Each game starts with a header
+ * (the length of an update, the settings that change the game, a hash of the level and its name) that is followed by its input.
+ * Every input is one number written in as few bytes as it needs (7 bits to a byte, the high bit set on every byte but
+ * the last): the number of updates since the last input, shifted left by 3, with the kind of input in the low 3 bits.
+ * Most inputs take a single byte. A game ends with an END or QUIT record followed by the score as a 4 byte int.
+ *
+ * Recording doesn't create any objects, so it can be done from the game loop.
+ */
+public final class InputJournal {
+
+    /**
+     * These are written at the start of each game. The version is changed whenever the layout of the file changes.
+     */
+    private static final int MAGIC = 0x44414a4c, VERSION = 2;
+
+    /**
+     * These are the kinds of input. FIRE fires a projectile, the others set the direction of the next projectiles.
+     */
+    public static final int FIRE = 0, FORWARD = 1, LEFT = 2, RIGHT = 3;
+
+    /**
+     * These end a game. END is written when the time ran out and QUIT when the game was closed before that.
+     */
+    private static final int QUIT = 6, END = 7;
+
+    /**
+     * This is the number of low bits of a record that hold the kind of input.
+     */
+    private static final int EVENT_BITS = 3;
+
+    /**
+     * The input is written to this. It is null once the journal is closed.
+     */
+    private DataOutputStream out;
+
+    /**
+     * This is the update the last input was given on.
+     */
+    private long lastTick = 0;
+
+    /**
+     * This indicates that the end of the game has been written.
+     */
+    private boolean ended = false;
+
+    /**
+     * This opens a journal and writes the header of a new game to it.
+     *
+     * @param fileName	The file the game is added to. It is created if it doesn't exist.
+     * @param world		The game that is recorded. It must be played on a level that was loaded by name.
+     * @throws IOException If the file couldn't be opened or written.
+     */
+    public InputJournal(String fileName, GameWorld world) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName, true)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(world.getTickTime());
+            out.writeInt(GameWorld.getMaxProjectiles());
+            out.writeInt(GameWorld.getFireInterval());
+            out.writeInt(world.getLevel().getHash());
+            out.writeUTF(world.getLevel().getName());
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    /**
+     * This gives an input to a game. The game panel and replays both give their input through this, so that they do
+     * exactly the same thing with it.
+     *
+     * @param event	The kind of input: FIRE, FORWARD, LEFT or RIGHT.
+     * @param world	The game.
+     */
+    public static void apply(int event, GameWorld world) {
+        switch (event) {
+        case FIRE:
+            world.fire();
+            break;
+        case FORWARD:
+            world.setDirection(Direction.FORWARD);
+            break;
+        case LEFT:
+            world.setDirection(Direction.LEFT);
+            break;
+        case RIGHT:
+            world.setDirection(Direction.RIGHT);
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown input " + event);
+        }
+    }
+
+    /**
+     * This adds an input to the journal. The inputs have to be recorded in the order they are given to the game.
+     *
+     * The journal is only written and closed on the game thread (GamePanel ends it when the game loop ends), so 
+     * the methods that write to it don't need a lock.
+     *
+     * @param tick	The update the input is given on (the number of updates before it).
+     * @param event	The kind of input: FIRE, FORWARD, LEFT or RIGHT.
+     */
+    public void record(long tick, int event) {
+        write(tick, event);
+    }
+
+    /**
+     * This writes the end of a game whose time ran out and closes the journal.
+     *
+     * @param world	The game, which has to be over.
+     */
+    public void end(GameWorld world) {
+        finish(world, END);
+    }
+
+    /**
+     * This writes the end of a game that was closed before its time ran out and closes the journal. Nothing is written
+     * if the end of the game has already been written.
+     *
+     * @param world	The game.
+     */
+    public void quit(GameWorld world) {
+        finish(world, QUIT);
+    }
+
+    /**
+     * This writes the end of a game and its score and closes the journal.
+     *
+     * @param world	The game.
+     * @param event	END or QUIT.
+     */
+    private void finish(GameWorld world, int event) {
+        if (out != null && !ended) {
+            write(world.getTick(), event);
+            ended = true;
+            try {
+                out.writeInt(world.getScore().getScore());
+                out.close();
+            } catch (IOException e) {
+                System.out.println("Unable to write the input journal: " + e.getMessage());
+            }
+            out = null;
+        }
+    }
+
+    /**
+     * This writes one record. If the file can't be written, the journal is closed and the game goes on without it.
+     *
+     * @param tick	The update of the record.
+     * @param event	The kind of record.
+     */
+    private void write(long tick, int event) {
+        if (out == null) {
+            return;
+        }
+        long value = ((tick - lastTick) << EVENT_BITS) | event;
+        lastTick = tick;
+        try {
+            while ((value & ~0x7fL) != 0) {
+                out.write((int) (value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            out.write((int) value);
+        } catch (IOException e) {
+            System.out.println("Unable to write the input journal: " + e.getMessage());
+            try {
+                out.close();
+            } catch (IOException ignored) {
+            }
+            out = null;
+        }
+    }
+
+    /**
+     * This reads all the games in a journal. A game that was cut off (because the game crashed while it was recorded) is
+     * read up to where it stops, and is neither ended nor quit.
+     *
+     * @param fileName	The journal.
+     * @return The games, in the order they were played.
+     * @throws IOException If the file couldn't be read or isn't a journal of this version.
+     */
+    public static List<Replay> read(String fileName) throws IOException {
+        List<Replay> games = new ArrayList<Replay>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)))) {
+            while (true) {
+                int magic;
+                try {
+                    magic = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (magic != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException(fileName + ": game " + (games.size() + 1) + " isn't a recorded game of version " + VERSION);
+                }
+                Replay game = new Replay(in.readLong(), in.readInt(), in.readInt(), in.readInt(), in.readUTF());
+                games.add(game);
+                if (!game.readInput(in)) {
+                    break;
+                }
+            }
+        }
+        return games;
+    }
+
+    /**
+     * A recorded game. It is an InputScript that gives a game the recorded input on the same updates it was given
+     * when the game was played.
+     */
+    public static class Replay implements InputScript {
+
+        /**
+         * These are the settings the game was played with.
+         */
+        private final long tickTime;
+        private final int maxProjectiles, fireInterval, levelHash;
+        private final String levelName;
+
+        /**
+         * These are the update and the kind of each input.
+         */
+        private long [] ticks = new long[64];
+        private byte [] events = new byte[64];
+        private int count = 0;
+
+        /**
+         * This is the index of the next input to give.
+         */
+        private int next = 0;
+
+        /**
+         * These are the number of updates the game lasted and its score, if its end was recorded.
+         */
+        private long endTick = -1;
+        private int score;
+
+        /**
+         * This indicates if the game was played until its time ran out.
+         */
+        private boolean finished = false;
+
+        /**
+         * This creates a recorded game without any input.
+         *
+         * @param tickTime			The length of an update in nanoseconds.
+         * @param maxProjectiles	The most projectiles that could fly at once.
+         * @param fireInterval		The shortest time between two shots in milliseconds.
+         * @param levelHash			The hash of the level, from Level.getHash().
+         * @param levelName			The name of the level.
+         */
+        private Replay(long tickTime, int maxProjectiles, int fireInterval, int levelHash, String levelName) {
+            this.tickTime = tickTime;
+            this.maxProjectiles = maxProjectiles;
+            this.fireInterval = fireInterval;
+            this.levelHash = levelHash;
+            this.levelName = levelName;
+        }
+
+        /**
+         * This reads the input of the game up to its end.
+         *
+         * @param in	The journal, just after the header of the game.
+         * @return True if the end of the game was read, false if the file stops before it.
+         * @throws IOException If the file couldn't be read or the input isn't valid.
+         */
+        private boolean readInput(DataInputStream in) throws IOException {
+            long tick = 0;
+            while (true) {
+                long value = 0;
+                int shift = 0;
+                int b;
+                do {
+                    b = in.read();
+                    if (b < 0) {
+                        return false;
+                    }
+                    if (shift > 56) {
+                        throw new IOException("The input journal is damaged");
+                    }
+                    value |= (long) (b & 0x7f) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+
+                tick += value >>> EVENT_BITS;
+                int event = (int) (value & ((1 << EVENT_BITS) - 1));
+                if (event == END || event == QUIT) {
+                    endTick = tick;
+                    finished = event == END;
+                    try {
+                        score = in.readInt();
+                    } catch (EOFException e) {
+                        endTick = -1;
+                        return false;
+                    }
+                    return true;
+                } else if (event > RIGHT) {
+                    throw new IOException("The input journal is damaged");
+                }
+                if (count == ticks.length) {
+                    ticks = Arrays.copyOf(ticks, count * 2);
+                    events = Arrays.copyOf(events, count * 2);
+                }
+                ticks[count] = tick;
+                events[count] = (byte) event;
+                count++;
+            }
+        }
+
+        @Override
+        public void apply(long tick, GameWorld world) {
+            while (next < count && ticks[next] <= tick) {
+                InputJournal.apply(events[next], world);
+                next++;
+            }
+        }
+
+        /**
+         * This starts the replay over, so the game can be played again.
+         */
+        public void rewind() {
+            next = 0;
+        }
+
+        /**
+         * This returns the length of an update the game was played with.
+         *
+         * @return The length of an update in nanoseconds.
+         */
+        public long getTickTime() {
+            return tickTime;
+        }
+
+        /**
+         * This returns the most projectiles that could fly at once when the game was played.
+         *
+         * @return The most projectiles that could fly at once.
+         */
+        public int getMaxProjectiles() {
+            return maxProjectiles;
+        }
+
+        /**
+         * This returns the shortest time between two shots when the game was played.
+         *
+         * @return The shortest time between two shots in milliseconds.
+         */
+        public int getFireInterval() {
+            return fireInterval;
+        }
+
+        /**
+         * This returns the hash of the level the game was played on.
+         *
+         * @return The hash of the level, from Level.getHash().
+         */
+        public int getLevelHash() {
+            return levelHash;
+        }
+
+        /**
+         * This returns the name of the level the game was played on.
+         *
+         * @return The name of the level, which can be loaded with Level.load().
+         */
+        public String getLevelName() {
+            return levelName;
+        }
+
+        /**
+         * This returns the number of inputs that were recorded.
+         *
+         * @return The number of inputs.
+         */
+        public int getInputCount() {
+            return count;
+        }
+
+        /**
+         * This indicates if the end of the game was recorded.
+         *
+         * @return True if the game ended or was quit, false if the recording was cut off.
+         */
+        public boolean hasEnd() {
+            return endTick >= 0;
+        }
+
+        /**
+         * This indicates if the game was played until its time ran out.
+         *
+         * @return True if the time ran out, false if the game was quit or the recording was cut off.
+         */
+        public boolean isFinished() {
+            return finished;
+        }
+
+        /**
+         * This returns the number of updates the game lasted.
+         *
+         * @return The number of updates, or -1 if the end of the game wasn't recorded.
+         */
+        public long getEndTick() {
+            return endTick;
+        }
+
+        /**
+         * This returns the score of the game when it ended or was quit.
+         *
+         * @return The recorded score. It is only valid if hasEnd() is true.
+         */
+        public int getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This passes the player's input from the event dispatch thread to the game thread. It is a ring buffer of ints that
+ * exactly one thread adds to and exactly one other thread takes from, which is all the game needs, so neither thread
+ * ever takes a lock or waits for the other: the key events are never held up by an update or a frame being drawn,
+ * and the game thread never waits for the event dispatch thread.
+ *
+ * The adding thread only writes the tail and the taking thread only writes the head. An input is written into its slot
+ * before the tail is moved past it, and the tail is moved with a release store (lazySet()), so the taking thread, which
+ * reads the tail before the slot, always sees the whole input. The same is done the other way for the head, so a slot
+ * is never written again before it was read. Each thread also keeps the last value it read of the other's counter, so
+ * most calls don't have to read the other thread's counter at all.
+ *
+ * Nothing is created after the queue is made, so it can be used from the game loop.
+ */
+public final class InputQueue {
+
+    /**
+     * This is returned by poll() when the queue is empty. It can't be added to the queue.
+     */
+    public static final int EMPTY = -1;
+
+    /**
+     * These are the slots of the ring buffer. Its length is a power of two, so a counter is turned into an index with mask.
+     */
+    private final int [] buffer;
+    private final int mask;
+
+    /**
+     * This is the number of inputs that were taken. It is only written by the thread that takes the input.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * This is the number of inputs that were added. It is only written by the thread that adds the input.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * This is the value of head that the adding thread read last. The head never goes back, so while this shows that
+     * there is room, there is.
+     */
+    private long cachedHead = 0;
+
+    /**
+     * This is the value of tail that the taking thread read last. The tail never goes back, so while this shows that
+     * there is input, there is.
+     */
+    private long cachedTail = 0;
+
+    /**
+     * This creates an empty queue.
+     *
+     * @param capacity	The most inputs the queue can hold. It is rounded up to a power of two.
+     */
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        buffer = new int[size];
+        mask = size - 1;
+    }
+
+    /**
+     * This adds an input to the end of the queue. It must only be called by one thread.
+     *
+     * @param input	The input. It must not be EMPTY.
+     * @return True if the input was added, false if the queue was full.
+     */
+    public boolean offer(int input) {
+        long t = tail.get();
+        if (t - cachedHead == buffer.length) {
+            cachedHead = head.get();
+            if (t - cachedHead == buffer.length) {
+                return false;
+            }
+        }
+        buffer[(int) t & mask] = input;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * This takes the input at the front of the queue. It must only be called by one thread (not the one that adds to it).
+     *
+     * @return The input, or EMPTY if the queue is empty.
+     */
+    public int poll() {
+        long h = head.get();
+        if (h == cachedTail) {
+            cachedTail = tail.get();
+            if (h == cachedTail) {
+                return EMPTY;
+            }
+        }
+        int input = buffer[(int) h & mask];
+        head.lazySet(h + 1);
+        return input;
+    }
+
+    /**
+     * This returns the number of inputs in the queue. It can be called from any thread, but the queue may have changed
+     * by the time it returns.
+     *
+     * @return The number of inputs in the queue.
+     */
+    public int size() {
+        long h = head.get();
+        return (int) (tail.get() - h);
+    }
+
+    /**
+     * This returns the most inputs the queue can hold.
+     *
+     * @return The capacity of the queue.
+     */
+    public int getCapacity() {
+        return buffer.length;
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * An InputScript plays the game instead of a player. It is used by HeadlessSimulation to give a game
+ * its input without a keyboard.
+ */
+public interface InputScript {
+
+    /**
+     * This is called before every update so the script can give the game its input for that update,
+     * the same way a player's key presses are given to the game before an update.
+     * 
+     * @param tick	The number of updates since the game started.
+     * @param world	The game being played.
+     */
+    void apply(long tick, GameWorld world);
+}
@@ -0,0 +1,744 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * This describes the layout of a game: the time limit, the slider, where the clock and the score are shown, the tanks,
+ * the kinds of people and where each person stands. GameWorld builds a game from a level instead of from numbers written
+ * into the code, so a different layout can be played just by loading a different level.
+ * 
+ * A level is written by hand as a text file (a .level file, see levels/default.level for the format) and can be compiled 
+ * by the LevelCompiler into a binary file (a .lvl file) next to it. The binary file holds the same numbers and names in
+ * the order they are read, so it is loaded with a single read and no parsing. load() uses the binary file when it is at 
+ * least as new as the text file, and reads the text file otherwise.
+ * 
+ * The people are kept the way the DunkeeStore keeps them, in one array for each number, and refer to their kind and 
+ * their tank by index.
+ */
+public final class Level {
+
+    /**
+     * These are written at the start of a compiled level. The version is changed whenever the layout of the file changes.
+     */
+    private static final int MAGIC = 0x444c564c, VERSION = 1;
+
+    /**
+     * These are the endings of the names of text and compiled level files.
+     */
+    public static final String TEXT_EXTENSION = ".level", BINARY_EXTENSION = ".lvl";
+
+    /**
+     * This is the level that is played if no level is given. It can be changed with -Ddunkaprof.level=levels/name 
+     * (the name of the level's files without the ending).
+     */
+    private static final String DEFAULT_LEVEL = System.getProperty("dunkaprof.level", "levels/default");
+
+    /**
+     * This is the default level, once it is loaded.
+     */
+    private static Level defaultLevel = null;
+
+    /**
+     * This is the name the level was loaded by, or null if it was read straight from a file.
+     */
+    private String name = null;
+
+    /**
+     * These are the time limit in seconds and the distances the slider moves and a dunked person sinks each update.
+     */
+    private int timeLimit, sliderSpeed, sinkSpeed;
+
+    /**
+     * These are the image and position of the slider.
+     */
+    private String sliderImage;
+    private int sliderX, sliderY;
+
+    /**
+     * These are the positions of the clock and the score.
+     */
+    private int clockX, clockY, scoreX, scoreY;
+
+    /**
+     * These are the images and positions of the tanks.
+     */
+    private String [] tankImages;
+    private int [] tankX, tankY;
+
+    /**
+     * These are the names of the kinds of people and the kinds themselves.
+     */
+    private String [] typeNames;
+    private DunkeeType [] types;
+
+    /**
+     * These are the kind of each person, his position, the position of his target and his splash, and his tank.
+     */
+    private int [] dunkeeType, dunkeeX, dunkeeY, targetX, targetY, splashX, splashY, dunkeeTank;
+
+    /**
+     * Levels are only made by the methods that load them.
+     */
+    private Level() {
+    }
+
+    /**
+     * This returns the default level, loading it the first time it is asked for.
+     * 
+     * @return The default level.
+     * @throws IllegalStateException If the default level couldn't be loaded.
+     */
+    public static synchronized Level getDefault() {
+        if (defaultLevel == null) {
+            try {
+                defaultLevel = load(DEFAULT_LEVEL);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to load the level " + DEFAULT_LEVEL, e);
+            }
+        }
+        return defaultLevel;
+    }
+
+    /**
+     * This loads a level. The compiled file is read if it is at least as new as the text file; otherwise the text file is read.
+     * 
+     * @param name	The name of the level's files without the ending, for example "levels/default".
+     * @return The level.
+     * @throws IOException If neither file could be read, or the file that was read isn't a valid level.
+     */
+    public static Level load(String name) throws IOException {
+        File text = new File(name + TEXT_EXTENSION);
+        File binary = new File(name + BINARY_EXTENSION);
+        Level level;
+        if (binary.isFile() && (!text.isFile() || binary.lastModified() >= text.lastModified())) {
+            level = readBinary(binary.toPath());
+        } else {
+            level = readText(text.toPath());
+        }
+        level.name = name;
+        return level;
+    }
+
+    /**
+     * This reads a level from a text file.
+     * 
+     * Each line holds one part of the level: a keyword followed by numbers and names separated by spaces. Empty lines and
+     * everything after a # are ignored. A tank's index is its position among the tank lines, starting at 0. The sink 
+     * speed can't be more than the height of any type.
+     * 
+     * <pre>
+     * time    seconds
+     * slider  image x y speed
+     * sink    speed
+     * clock   x y
+     * score   x y
+     * tank    image x y
+     * type    name image undunkImage scoreImage splashFrames scream|- width height points
+     * dunkee  type x y targetX targetY splashX splashY tank
+     * </pre>
+     * 
+     * @param file	The text file.
+     * @return The level.
+     * @throws IOException If the file couldn't be read or isn't a valid level. The message tells which line is wrong.
+     */
+    public static Level readText(Path file) throws IOException {
+        Level level = new Level();
+        List<String> tankImages = new ArrayList<String>();
+        List<String> typeNames = new ArrayList<String>();
+        List<DunkeeType> types = new ArrayList<DunkeeType>();
+        List<int []> tanks = new ArrayList<int []>(), dunkees = new ArrayList<int []>();
+        boolean hasTime = false, hasSlider = false;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int comment = line.indexOf('#');
+                if (comment >= 0) {
+                    line = line.substring(0, comment);
+                }
+                String [] words = line.trim().split("\\s+");
+                if (words[0].isEmpty()) {
+                    continue;
+                }
+                String where = file + ":" + lineNumber + ": ";
+                try {
+                    switch (words[0]) {
+                    case "time":
+                        expect(words, 2);
+                        level.timeLimit = positive(words[1]);
+                        hasTime = true;
+                        break;
+                    case "slider":
+                        expect(words, 5);
+                        level.sliderImage = words[1];
+                        level.sliderX = Integer.parseInt(words[2]);
+                        level.sliderY = Integer.parseInt(words[3]);
+                        level.sliderSpeed = positive(words[4]);
+                        hasSlider = true;
+                        break;
+                    case "sink":
+                        expect(words, 2);
+                        level.sinkSpeed = positive(words[1]);
+                        break;
+                    case "clock":
+                        expect(words, 3);
+                        level.clockX = Integer.parseInt(words[1]);
+                        level.clockY = Integer.parseInt(words[2]);
+                        break;
+                    case "score":
+                        expect(words, 3);
+                        level.scoreX = Integer.parseInt(words[1]);
+                        level.scoreY = Integer.parseInt(words[2]);
+                        break;
+                    case "tank":
+                        expect(words, 4);
+                        tankImages.add(words[1]);
+                        tanks.add(new int [] { Integer.parseInt(words[2]), Integer.parseInt(words[3]) });
+                        break;
+                    case "type":
+                        expect(words, 10);
+                        if (typeNames.contains(words[1])) {
+                            throw new IllegalArgumentException("the type " + words[1] + " is defined twice");
+                        }
+                        typeNames.add(words[1]);
+                        types.add(new DunkeeType(words[2], words[3], words[4], words[5], words[6].equals("-") ? null : words[6],
+                                                 positive(words[7]), positive(words[8]), Integer.parseInt(words[9])));
+                        break;
+                    case "dunkee":
+                        expect(words, 9);
+                        int type = typeNames.indexOf(words[1]);
+                        if (type < 0) {
+                            throw new IllegalArgumentException("unknown type " + words[1]);
+                        }
+                        int tank = Integer.parseInt(words[8]);
+                        if (tank < 0 || tank >= tanks.size()) {
+                            throw new IllegalArgumentException("there is no tank " + tank);
+                        }
+                        dunkees.add(new int [] { type, Integer.parseInt(words[2]), Integer.parseInt(words[3]), Integer.parseInt(words[4]), 
+                                                 Integer.parseInt(words[5]), Integer.parseInt(words[6]), Integer.parseInt(words[7]), tank });
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown keyword " + words[0]);
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(where + e.getMessage());	// This includes the NumberFormatExceptions.
+                }
+            }
+        }
+        if (!hasTime || !hasSlider || level.sinkSpeed == 0) {
+            throw new IOException(file + ": a level needs a time, a slider and a sink line");
+        }
+
+        level.tankImages = tankImages.toArray(new String[tankImages.size()]);
+        level.tankX = new int[tanks.size()];
+        level.tankY = new int[tanks.size()];
+        for (int i = 0; i < tanks.size(); i++) {
+            level.tankX[i] = tanks.get(i)[0];
+            level.tankY[i] = tanks.get(i)[1];
+        }
+        level.typeNames = typeNames.toArray(new String[typeNames.size()]);
+        level.types = types.toArray(new DunkeeType[types.size()]);
+        level.checkSinkSpeed(file);
+        level.setDunkeeCount(dunkees.size());
+        for (int i = 0; i < dunkees.size(); i++) {
+            level.setDunkee(i, dunkees.get(i));
+        }
+        return level;
+    }
+
+    /**
+     * This writes the level to a compiled file.
+     * 
+     * @param file	The file to write.
+     * @throws IOException If the file couldn't be written.
+     */
+    public void writeBinary(Path file) throws IOException {
+        Files.write(file, toBinary());
+    }
+
+    /**
+     * This works out a hash of the compiled level. A level read from its text file and from its compiled file have the 
+     * same hash, and any change to the layout changes it. An input journal stores it, so a game isn't replayed on a 
+     * level that was changed after it was played.
+     * 
+     * @return The CRC-32 of the compiled level.
+     */
+    public int getHash() {
+        CRC32 crc = new CRC32();
+        crc.update(toBinary());
+        return (int) crc.getValue();
+    }
+
+    /**
+     * This puts the level into the layout of a compiled file.
+     * 
+     * @return The bytes of the compiled file.
+     */
+    private byte [] toBinary() {
+        int size = 14 * 4 + stringSize(sliderImage);
+        for (int i = 0; i < tankImages.length; i++) {
+            size += stringSize(tankImages[i]) + 2 * 4;
+        }
+        for (int i = 0; i < types.length; i++) {
+            DunkeeType type = types[i];
+            size += stringSize(typeNames[i]) + stringSize(type.getFileName()) + stringSize(type.getUndunkImage()) + stringSize(type.getScoreImage())
+                    + stringSize(type.getSplashImage()) + stringSize(type.getScreamFile()) + 3 * 4;
+        }
+        size += dunkeeType.length * 8 * 4;
+
+        ByteBuffer data = ByteBuffer.allocate(size);
+        data.putInt(MAGIC).putInt(VERSION);
+        data.putInt(timeLimit).putInt(sliderSpeed).putInt(sinkSpeed);
+        putString(data, sliderImage);
+        data.putInt(sliderX).putInt(sliderY).putInt(clockX).putInt(clockY).putInt(scoreX).putInt(scoreY);
+
+        data.putInt(tankImages.length);
+        for (int i = 0; i < tankImages.length; i++) {
+            putString(data, tankImages[i]);
+            data.putInt(tankX[i]).putInt(tankY[i]);
+        }
+        data.putInt(types.length);
+        for (int i = 0; i < types.length; i++) {
+            DunkeeType type = types[i];
+            putString(data, typeNames[i]);
+            putString(data, type.getFileName());
+            putString(data, type.getUndunkImage());
+            putString(data, type.getScoreImage());
+            putString(data, type.getSplashImage());
+            putString(data, type.getScreamFile());
+            data.putInt(type.getWidth()).putInt(type.getHeight()).putInt(type.getScoreModifier());
+        }
+        data.putInt(dunkeeType.length);
+        for (int i = 0; i < dunkeeType.length; i++) {
+            data.putInt(dunkeeType[i]).putInt(dunkeeX[i]).putInt(dunkeeY[i]).putInt(targetX[i]).putInt(targetY[i])
+                .putInt(splashX[i]).putInt(splashY[i]).putInt(dunkeeTank[i]);
+        }
+        return data.array();
+    }
+
+    /**
+     * This reads a level from a compiled file. The whole file is read at once and the level is taken from it in order.
+     * 
+     * @param file	The compiled file.
+     * @return The level.
+     * @throws IOException If the file couldn't be read or isn't a compiled level of this version.
+     */
+    public static Level readBinary(Path file) throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (data.getInt() != MAGIC || data.getInt() != VERSION) {
+                throw new IOException(file + " isn't a compiled level of version " + VERSION + "; compile it again with the LevelCompiler");
+            }
+            Level level = new Level();
+            level.timeLimit = data.getInt();
+            level.sliderSpeed = data.getInt();
+            level.sinkSpeed = data.getInt();
+            level.sliderImage = getString(data);
+            level.sliderX = data.getInt();
+            level.sliderY = data.getInt();
+            level.clockX = data.getInt();
+            level.clockY = data.getInt();
+            level.scoreX = data.getInt();
+            level.scoreY = data.getInt();
+
+            int tankCount = data.getInt();
+            level.tankImages = new String[tankCount];
+            level.tankX = new int[tankCount];
+            level.tankY = new int[tankCount];
+            for (int i = 0; i < tankCount; i++) {
+                level.tankImages[i] = getString(data);
+                level.tankX[i] = data.getInt();
+                level.tankY[i] = data.getInt();
+            }
+            int typeCount = data.getInt();
+            level.typeNames = new String[typeCount];
+            level.types = new DunkeeType[typeCount];
+            for (int i = 0; i < typeCount; i++) {
+                level.typeNames[i] = getString(data);
+                String fileName = getString(data), undunkImage = getString(data), scoreImage = getString(data);
+                String splashImage = getString(data), screamFile = getString(data);
+                level.types[i] = new DunkeeType(fileName, undunkImage, scoreImage, splashImage, screamFile, data.getInt(), data.getInt(), data.getInt());
+            }
+            level.checkSinkSpeed(file);
+            int dunkeeCount = data.getInt();
+            level.setDunkeeCount(dunkeeCount);
+            int [] dunkee = new int[8];
+            for (int i = 0; i < dunkeeCount; i++) {
+                data.asIntBuffer().get(dunkee);
+                data.position(data.position() + dunkee.length * 4);
+                if (dunkee[0] < 0 || dunkee[0] >= typeCount || dunkee[7] < 0 || dunkee[7] >= tankCount) {
+                    throw new IOException(file + " is damaged: person " + i + " has no type or tank");
+                }
+                level.setDunkee(i, dunkee);
+            }
+            return level;
+        } catch (RuntimeException e) {
+            throw new IOException(file + " is damaged: " + e, e);	// Thrown if the file is cut short.
+        }
+    }
+
+    /**
+     * This checks that every kind of person can sink at the level's sink speed. A dunked person is stopped when he 
+     * touches the middle and then the bottom line of his tank (see DunkeeStore.update()), so he must not move further 
+     * than his own height in one update, or he could step over the bottom line and sink forever.
+     * 
+     * @param file	The file the level was read from.
+     * @throws IOException If the sink speed is too big for one of the kinds of people.
+     */
+    private void checkSinkSpeed(Path file) throws IOException {
+        for (int i = 0; i < types.length; i++) {
+            if (sinkSpeed > types[i].getHeight()) {
+                throw new IOException(file + ": the sink speed " + sinkSpeed + " is more than the height of " + typeNames[i] 
+                                      + " (" + types[i].getHeight() + "), so he could sink through the bottom of his tank");
+            }
+        }
+    }
+
+    /**
+     * This makes the arrays that hold the people.
+     * 
+     * @param count	The number of people.
+     */
+    private void setDunkeeCount(int count) {
+        dunkeeType = new int[count];
+        dunkeeX = new int[count];
+        dunkeeY = new int[count];
+        targetX = new int[count];
+        targetY = new int[count];
+        splashX = new int[count];
+        splashY = new int[count];
+        dunkeeTank = new int[count];
+    }
+
+    /**
+     * This sets a person.
+     * 
+     * @param i			The index of the person.
+     * @param dunkee	His type, x, y, target x, target y, splash x, splash y and tank, in that order.
+     */
+    private void setDunkee(int i, int [] dunkee) {
+        dunkeeType[i] = dunkee[0];
+        dunkeeX[i] = dunkee[1];
+        dunkeeY[i] = dunkee[2];
+        targetX[i] = dunkee[3];
+        targetY[i] = dunkee[4];
+        splashX[i] = dunkee[5];
+        splashY[i] = dunkee[6];
+        dunkeeTank[i] = dunkee[7];
+    }
+
+    /**
+     * This checks that a line has the right number of words.
+     * 
+     * @param words	The words of the line, starting with the keyword.
+     * @param count	The number of words the line should have.
+     */
+    private static void expect(String [] words, int count) {
+        if (words.length != count) {
+            throw new IllegalArgumentException(words[0] + " needs " + (count - 1) + " values but has " + (words.length - 1));
+        }
+    }
+
+    /**
+     * This reads a number that has to be more than 0.
+     * 
+     * @param word	The number.
+     * @return The number.
+     */
+    private static int positive(String word) {
+        int value = Integer.parseInt(word);
+        if (value <= 0) {
+            throw new IllegalArgumentException(word + " has to be more than 0");
+        }
+        return value;
+    }
+
+    /**
+     * This returns the number of bytes a name takes up in a compiled level: its length and its UTF-8 bytes. A missing 
+     * name (null) is stored as a length of -1.
+     * 
+     * @param text	The name, or null.
+     * @return The number of bytes.
+     */
+    private static int stringSize(String text) {
+        return 2 + (text == null ? 0 : text.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    /**
+     * This writes a name to a compiled level.
+     * 
+     * @param data	The contents of the compiled level.
+     * @param text	The name, or null.
+     */
+    private static void putString(ByteBuffer data, String text) {
+        if (text == null) {
+            data.putShort((short) -1);
+        } else {
+            byte [] bytes = text.getBytes(StandardCharsets.UTF_8);
+            data.putShort((short) bytes.length);
+            data.put(bytes);
+        }
+    }
+
+    /**
+     * This reads a name from a compiled level.
+     * 
+     * @param data	The contents of the compiled level.
+     * @return The name, or null.
+     */
+    private static String getString(ByteBuffer data) {
+        int length = data.getShort();
+        if (length < 0) {
+            return null;
+        }
+        String text = new String(data.array(), data.arrayOffset() + data.position(), length, StandardCharsets.UTF_8);
+        data.position(data.position() + length);
+        return text;
+    }
+
+    /**
+     * This returns the name the level was loaded by.
+     * 
+     * @return The name of the level's files without the ending, or null if the level was read straight from a file.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * This returns the time limit.
+     * 
+     * @return The time limit in seconds.
+     */
+    public int getTimeLimit() {
+        return timeLimit;
+    }
+
+    /**
+     * This returns the distance the slider moves each update.
+     * 
+     * @return The distance in pixels.
+     */
+    public int getSliderSpeed() {
+        return sliderSpeed;
+    }
+
+    /**
+     * This returns the distance a dunked person sinks each update.
+     * 
+     * @return The distance in pixels.
+     */
+    public int getSinkSpeed() {
+        return sinkSpeed;
+    }
+
+    /**
+     * This returns the image of the slider.
+     * 
+     * @return The file which stores the image.
+     */
+    public String getSliderImage() {
+        return sliderImage;
+    }
+
+    /**
+     * This returns the x coordinate the slider starts at.
+     * 
+     * @return The x coordinate.
+     */
+    public int getSliderX() {
+        return sliderX;
+    }
+
+    /**
+     * This returns the y coordinate of the slider.
+     * 
+     * @return The y coordinate.
+     */
+    public int getSliderY() {
+        return sliderY;
+    }
+
+    /**
+     * This returns the x coordinate of the clock.
+     * 
+     * @return The x coordinate.
+     */
+    public int getClockX() {
+        return clockX;
+    }
+
+    /**
+     * This returns the y coordinate of the clock.
+     * 
+     * @return The y coordinate.
+     */
+    public int getClockY() {
+        return clockY;
+    }
+
+    /**
+     * This returns the x coordinate of the score.
+     * 
+     * @return The x coordinate.
+     */
+    public int getScoreX() {
+        return scoreX;
+    }
+
+    /**
+     * This returns the y coordinate of the score.
+     * 
+     * @return The y coordinate.
+     */
+    public int getScoreY() {
+        return scoreY;
+    }
+
+    /**
+     * This returns the number of tanks.
+     * 
+     * @return The number of tanks.
+     */
+    public int getTankCount() {
+        return tankImages.length;
+    }
+
+    /**
+     * This returns the image of a tank.
+     * 
+     * @param i	The index of the tank.
+     * @return The file which stores the image.
+     */
+    public String getTankImage(int i) {
+        return tankImages[i];
+    }
+
+    /**
+     * This returns the x coordinate of a tank.
+     * 
+     * @param i	The index of the tank.
+     * @return The x coordinate.
+     */
+    public int getTankX(int i) {
+        return tankX[i];
+    }
+
+    /**
+     * This returns the y coordinate of a tank.
+     * 
+     * @param i	The index of the tank.
+     * @return The y coordinate.
+     */
+    public int getTankY(int i) {
+        return tankY[i];
+    }
+
+    /**
+     * This returns the kinds of people.
+     * 
+     * @return The kinds of people, in the order they are defined.
+     */
+    public DunkeeType [] getTypes() {
+        return types.clone();
+    }
+
+    /**
+     * This returns the number of people.
+     * 
+     * @return The number of people.
+     */
+    public int getDunkeeCount() {
+        return dunkeeType.length;
+    }
+
+    /**
+     * This returns the kind of a person.
+     * 
+     * @param i	The index of the person.
+     * @return The kind of person.
+     */
+    public DunkeeType getDunkeeType(int i) {
+        return types[dunkeeType[i]];
+    }
+
+    /**
+     * This returns the x coordinate of a person.
+     * 
+     * @param i	The index of the person.
+     * @return The x coordinate.
+     */
+    public int getDunkeeX(int i) {
+        return dunkeeX[i];
+    }
+
+    /**
+     * This returns the y coordinate of a person when he stands on his platform.
+     * 
+     * @param i	The index of the person.
+     * @return The y coordinate.
+     */
+    public int getDunkeeY(int i) {
+        return dunkeeY[i];
+    }
+
+    /**
+     * This returns the x coordinate of a person's target.
+     * 
+     * @param i	The index of the person.
+     * @return The x coordinate.
+     */
+    public int getTargetX(int i) {
+        return targetX[i];
+    }
+
+    /**
+     * This returns the y coordinate of a person's target.
+     * 
+     * @param i	The index of the person.
+     * @return The y coordinate.
+     */
+    public int getTargetY(int i) {
+        return targetY[i];
+    }
+
+    /**
+     * This returns the x coordinate of a person's splash.
+     * 
+     * @param i	The index of the person.
+     * @return The x coordinate.
+     */
+    public int getSplashX(int i) {
+        return splashX[i];
+    }
+
+    /**
+     * This returns the y coordinate of a person's splash.
+     * 
+     * @param i	The index of the person.
+     * @return The y coordinate.
+     */
+    public int getSplashY(int i) {
+        return splashY[i];
+    }
+
+    /**
+     * This returns the index of the tank a person sinks into.
+     * 
+     * @param i	The index of the person.
+     * @return The index of the tank.
+     */
+    public int getDunkeeTank(int i) {
+        return dunkeeTank[i];
+    }
+}
@@ -0,0 +1,48 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * This compiles levels written as text (.level files) into the binary files (.lvl files) the game loads quickly.
+ * Each compiled file is written next to its text file. The text file is checked while it is compiled, so a mistake 
+ * in a level is reported with its line number here instead of when the game starts.
+ * 
+ * Run it with the text files to compile, for example: java LevelCompiler levels/default.level
+ */
+public class LevelCompiler {
+
+    /**
+     * This compiles the levels given on the command line.
+     * 
+     * @param args	The text files of the levels.
+     */
+    public static void main(String [] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: java LevelCompiler levels/name" + Level.TEXT_EXTENSION + " ...");
+            System.exit(2);
+        }
+
+        boolean failed = false;
+        for (String fileName : args) {
+            if (!fileName.endsWith(Level.TEXT_EXTENSION)) {
+                System.out.println(fileName + ": a level's text file has to end with " + Level.TEXT_EXTENSION);
+                failed = true;
+                continue;
+            }
+            Path text = Paths.get(fileName);
+            Path binary = Paths.get(fileName.substring(0, fileName.length() - Level.TEXT_EXTENSION.length()) + Level.BINARY_EXTENSION);
+            try {
+                Level level = Level.readText(text);
+                level.writeBinary(binary);
+                Level.readBinary(binary);	// Make sure it can be read back.
+                System.out.println(text + " -> " + binary + ": " + level.getTankCount() + " tanks, " + level.getDunkeeCount() + " people");
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+                failed = true;
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
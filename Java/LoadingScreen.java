@@ -0,0 +1,113 @@
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.JPanel;
+import javax.swing.Timer;
+
+//This is used to tell eclipse not to bitch about not having a serial id.
+@SuppressWarnings("serial")
+
+/**
+ * This is shown in the window while the game's images, fonts and sounds are loaded in the background by an AssetManager. 
+ * It draws the start screen's background with a progress bar under it. A Swing timer checks on the loading a few times 
+ * a second; when everything is loaded it tells the window, which puts the game panel in place of the loading screen.
+ */
+public class LoadingScreen extends JPanel implements ActionListener {
+
+    /**
+     * This is how often (in milliseconds) the loading is checked on and the progress bar is drawn again.
+     */
+    private static final int POLL_INTERVAL = 30;
+
+    /**
+     * These are the size and position of the progress bar.
+     */
+    private static final int BAR_WIDTH = 400, BAR_HEIGHT = 16, BAR_Y = 540;
+
+    /**
+     * This is the color of the part of the progress bar that is filled in.
+     */
+    private static final Color BAR_COLOR = new Color(255, 247, 153);
+
+    /**
+     * This is the image drawn behind the progress bar.
+     */
+    private final Image background;
+
+    /**
+     * This is loading the game's assets.
+     */
+    private final AssetManager assets;
+
+    /**
+     * This is called when the loading is done.
+     */
+    private final Runnable whenDone;
+
+    /**
+     * This checks on the loading.
+     */
+    private final Timer timer;
+
+    /**
+     * Constructs the loading screen. The background is loaded right away, since it is needed to draw the screen.
+     * 
+     * @param assets	The asset manager that is loading the game's assets.
+     * @param width		The width of the screen.
+     * @param height	The height of the screen.
+     * @param whenDone	This is run on the event dispatch thread once everything is loaded.
+     */
+    public LoadingScreen(AssetManager assets, int width, int height, Runnable whenDone) {
+        this.assets = assets;
+        this.whenDone = whenDone;
+        this.background = SpriteCache.getSprite("images/backgroundInStart.png", width, height);
+        setPreferredSize(new Dimension(width, height));
+        setBackground(Color.BLACK);
+        timer = new Timer(POLL_INTERVAL, this);
+    }
+
+    /**
+     * This starts checking on the loading.
+     */
+    public void start() {
+        timer.start();
+    }
+
+    /**
+     * This is called by the timer. It draws the progress bar again and hands over to the game once everything is loaded.
+     * 
+     * @param e	The timer's event.
+     */
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        repaint();
+        if (assets.isDone()) {
+            timer.stop();
+            whenDone.run();
+        }
+    }
+
+    /**
+     * This draws the background and the progress bar.
+     * 
+     * @param graphics	The Graphics object used to draw the panel.
+     */
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        super.paintComponent(graphics);
+        if (background != null) {
+            graphics.drawImage(background, 0, 0, null);
+        }
+        int x = (getWidth() - BAR_WIDTH) / 2;
+        graphics.setColor(Color.BLACK);
+        graphics.fillRect(x, BAR_Y, BAR_WIDTH, BAR_HEIGHT);
+        graphics.setColor(BAR_COLOR);
+        graphics.fillRect(x, BAR_Y, Math.round(BAR_WIDTH * assets.getProgress()), BAR_HEIGHT);
+        graphics.setColor(Color.WHITE);
+        graphics.drawRect(x, BAR_Y, BAR_WIDTH, BAR_HEIGHT);
+    }
+}
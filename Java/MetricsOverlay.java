@@ -0,0 +1,171 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This draws the FrameMetrics of the last second in a box over the game: the median and 99th percentile of the frame
+ * time and of the time the updates, the drawing and putting the frame on the screen took (in microseconds), the bytes
+ * allocated per frame, the number of garbage collections and the time a frame should take. It is shown and hidden
+ * with F3.
+ *
+ * The text is drawn with TextLabels and the numbers with a DigitAtlas, and the box is an image that is made once (filling
+ * a translucent rectangle on every frame creates objects), so drawing the overlay doesn't create any objects either. 
+ * The box has a fixed size, so the part of the screen it covers is known before it is first drawn.
+ */
+public class MetricsOverlay {
+
+    /**
+     * These are the names of the rows of percentiles, in the order of FrameMetrics' measurements.
+     */
+    private static final String [] CAPTIONS = { "frame", "update", "render", "paint", "alloc B" };
+
+    /**
+     * These are the size of the box, the height of a row of text and the space around the text.
+     */
+    public static final int WIDTH = 230, ROW_HEIGHT = 20, MARGIN = 6;
+
+    /**
+     * This is the number of rows: the header, a row for each measurement, the garbage collections and the target frame time.
+     */
+    private static final int ROWS = CAPTIONS.length + 3;
+
+    /**
+     * This is the height of the box.
+     */
+    public static final int HEIGHT = ROWS * ROW_HEIGHT + 2 * MARGIN;
+
+    /**
+     * These are the x coordinates of the two columns of numbers, from the left side of the box.
+     */
+    private static final int FIRST_COLUMN = 90, SECOND_COLUMN = 160;
+
+    /**
+     * This is the point size of the text.
+     */
+    private static final float FONT_SIZE = 18f;
+
+    /**
+     * This is the color of the box. It lets the game show through.
+     */
+    private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+
+    /**
+     * This is the box, once it is made.
+     */
+    private BufferedImage box = null;
+
+    /**
+     * These are the position of the top left corner of the box.
+     */
+    private final int xPosition, yPosition;
+
+    /**
+     * These draw the names of the rows and the header.
+     */
+    private final TextLabel [] captions = new TextLabel[CAPTIONS.length];
+    private final TextLabel unit, median, percentile99, collections, target;
+
+    /**
+     * This draws the numbers.
+     */
+    private final DigitAtlas digits;
+
+    /**
+     * This creates the overlay.
+     *
+     * @param font		The font the text is drawn with, at any size, or null to use the font of the Graphics object.
+     * @param xPosition	The x coordinate of the top left corner of the box.
+     * @param yPosition	The y coordinate of the top left corner of the box.
+     */
+    public MetricsOverlay(Font font, int xPosition, int yPosition) {
+        this.xPosition = xPosition;
+        this.yPosition = yPosition;
+        Font small = font != null ? font.deriveFont(FONT_SIZE) : null;
+        Color color = new Color(255, 247, 153);
+        for (int i = 0; i < CAPTIONS.length; i++) {
+            captions[i] = new TextLabel(CAPTIONS[i], small, color);
+        }
+        unit = new TextLabel("us", small, color);
+        median = new TextLabel("p50", small, color);
+        percentile99 = new TextLabel("p99", small, color);
+        collections = new TextLabel("gc/s", small, color);
+        target = new TextLabel("target", small, color);
+        digits = new DigitAtlas(small, color);
+    }
+
+    /**
+     * This draws the overlay.
+     *
+     * @param graphics	The Graphics object to draw with.
+     * @param metrics	The measurements that are shown.
+     */
+    public void draw(Graphics graphics, FrameMetrics metrics) {
+        if (box == null) {
+            box = SpriteCache.createCompatibleImage(WIDTH, HEIGHT, Transparency.TRANSLUCENT);
+            Graphics2D boxGraphics = box.createGraphics();
+            boxGraphics.setColor(BACKGROUND);
+            boxGraphics.fillRect(0, 0, WIDTH, HEIGHT);
+            boxGraphics.dispose();
+        }
+        graphics.drawImage(box, xPosition, yPosition, null);
+
+        int x = xPosition + MARGIN;
+        int y = baseline(0);
+        unit.draw(graphics, x, y);
+        median.draw(graphics, x + FIRST_COLUMN, y);
+        percentile99.draw(graphics, x + SECOND_COLUMN, y);
+
+        /**
+         * The times are shown in microseconds and the allocation in bytes.
+         */
+        for (int i = 0; i < CAPTIONS.length; i++) {
+            y = baseline(i + 1);
+            captions[i].draw(graphics, x, y);
+            digits.draw(graphics, toShown(i, metrics.getMedian(i)), x + FIRST_COLUMN, y);
+            digits.draw(graphics, toShown(i, metrics.getPercentile99(i)), x + SECOND_COLUMN, y);
+        }
+
+        y = baseline(CAPTIONS.length + 1);
+        collections.draw(graphics, x, y);
+        digits.draw(graphics, metrics.getCollections(), x + FIRST_COLUMN, y);
+
+        y = baseline(CAPTIONS.length + 2);
+        target.draw(graphics, x, y);
+        digits.draw(graphics, TimeUnit.NANOSECONDS.toMicros(metrics.getTargetFrameTime()), x + FIRST_COLUMN, y);
+    }
+
+    /**
+     * This works out the baseline of a row of text.
+     *
+     * @param row	The row, starting with 0 for the header.
+     * @return The y coordinate of the baseline.
+     */
+    private int baseline(int row) {
+        return yPosition + MARGIN + (row + 1) * ROW_HEIGHT - 4;
+    }
+
+    /**
+     * This turns a measurement into the number that is shown for it.
+     *
+     * @param measurement	The measurement.
+     * @param value			The value in nanoseconds or bytes.
+     * @return The number of microseconds, or the number of bytes.
+     */
+    private static long toShown(int measurement, long value) {
+        return measurement == FrameMetrics.ALLOCATED ? value : TimeUnit.NANOSECONDS.toMicros(value);
+    }
+
+    /**
+     * This adds the box to the region that has to be drawn again. The game under the box can change every frame, so
+     * this is done on every frame the overlay is shown, and on the frame after it is hidden.
+     *
+     * @param region	The parts of the screen that have to be drawn again.
+     */
+    public void markDirty(DirtyRegion region) {
+        region.add(xPosition, yPosition, WIDTH, HEIGHT);
+    }
+}
@@ -31,6 +31,16 @@ public class Paused {
 	 * Height of the game panel.
 	 */
 	private int panelHeight;
+
+	/**
+	 * These draw the two lines of the pause screen. Each line is only drawn into an image once.
+	 */
+	private final TextLabel title, instructions;
+
+	/**
+	 * This is the y coordinate of the baseline of the title.
+	 */
+	private final int titleY;
 	
 /**
  * Constructor used to set class attributes
@@ -44,7 +54,9 @@ public class Paused {
 		this.metrics = metrics;
 		this.panelWidth = panelWidth;
 		this.panelHeight = panelHeight;
-		
+		this.title = new TextLabel("Paused", font, Color.BLACK);
+		this.instructions = new TextLabel("Press ESC to continue", font, Color.BLACK);
+		this.titleY = (this.panelHeight - (metrics != null ? metrics.getHeight() : 0)) / 2;
 	}
 	/**
 	 * Draw method used to draw the Pause screen title and information on the screen while
@@ -52,9 +64,7 @@ public class Paused {
 	 * @param graphics Standard graphics object
 	 */
 	public void draw(Graphics graphics) {
-		graphics.setColor(Color.BLACK);
-		graphics.setFont(font);
-		graphics.drawString( "Paused" , (this.panelWidth - metrics.stringWidth("Paused"))/2 , (this.panelHeight - metrics.getHeight())/2 );
-		graphics.drawString( "Press ESC to continue" , (this.panelWidth - metrics.stringWidth("Press ESC to continue"))/2 , (this.panelHeight - metrics.getHeight()) / 2 + 50);
+		title.drawCentered(graphics, this.panelWidth, this.titleY);
+		instructions.drawCentered(graphics, this.panelWidth, this.titleY + 50);
 	}
 }
@@ -1,10 +1,7 @@
 import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.geom.Line2D;
-import java.io.File;
-import java.io.IOException;
-
-import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 
 /**
  * This class is the representation of the object in which the faculty will be dropped into
@@ -18,6 +15,21 @@ public class Pool {
     private Image image;
     int xPosition;
     int yPosition;
+
+    /**
+     * These are the width and height of the pool's image.
+     */
+    private int width, height;
+
+    /**
+     * These are the y coordinates of the pool's middle and bottom lines. The pool never moves, so they are worked out once.
+     */
+    private int middleLineY, bottomLineY;
+
+    /**
+     * These are the middle and bottom lines of the pool. They are made once and returned every time they are asked for.
+     */
+    private Line2D middleLine, bottomLine;
     
     /**
      * Constructs a new object which represents a pool on the JPanel.
@@ -27,14 +39,17 @@ public class Pool {
      * @param	yPosition	-	The pool's initial y coordinate on the JPanel
      */
     public Pool(String fileName, int xPosition, int yPosition) {
-        try {
-        	image = ( ImageIO.read(new File(fileName)) ).getScaledInstance(160, 210, Image.SCALE_DEFAULT); // Read in the file and scale it
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        BufferedImage sprite = SpriteCache.getSprite(fileName, 160, 210); // Read in the file and scale it
+        image = sprite;
 
         this.xPosition = xPosition;
         this.yPosition = yPosition;
+        this.width = sprite.getWidth();
+        this.height = sprite.getHeight();
+        this.middleLineY = (this.yPosition + this.height) / 2;
+        this.bottomLineY = (this.yPosition + this.height) - 10;
+        this.middleLine = new Line2D.Float(this.xPosition, this.middleLineY, this.xPosition + this.width, this.middleLineY);
+        this.bottomLine = new Line2D.Float(this.xPosition, this.bottomLineY, this.xPosition + this.width, this.bottomLineY);
 
     }
     
@@ -47,6 +62,74 @@ public class Pool {
         graphics.drawImage(image, xPosition, yPosition, null);
 
     }
+
+    /**
+     * This method draws the part of the pool that is inside a box.
+     *
+     * @param	graphics	A graphics object which is a reference to the JPanel
+     * @param	x			The x coordinate of the box.
+     * @param	y			The y coordinate of the box.
+     * @param	width		The width of the box.
+     * @param	height		The height of the box.
+     */
+    public void draw(Graphics graphics, int x, int y, int width, int height) {
+        int x1 = Math.max(x, this.xPosition);
+        int y1 = Math.max(y, this.yPosition);
+        int x2 = Math.min(x + width, this.xPosition + this.width);
+        int y2 = Math.min(y + height, this.yPosition + this.height);
+        if (x1 < x2 && y1 < y2) {
+            graphics.drawImage(image, x1, y1, x2, y2, x1 - this.xPosition, y1 - this.yPosition, x2 - this.xPosition, y2 - this.yPosition, null);
+        }
+    }
+
+    /**
+     * This is used to test if the pool overlaps a box.
+     *
+     * @param	x			The x coordinate of the box.
+     * @param	y			The y coordinate of the box.
+     * @param	width		The width of the box.
+     * @param	height		The height of the box.
+     * @return True if the pool overlaps the box.
+     */
+    public boolean overlaps(int x, int y, int width, int height) {
+        return Collision.intersects(this.xPosition, this.yPosition, this.width, this.height, x, y, width, height);
+    }
+
+    /**
+     * This gets the x coordinate of the pool.
+     *
+     * @return The x coordinate of the pool.
+     */
+    public int getXPosition() {
+        return xPosition;
+    }
+
+    /**
+     * This gets the y coordinate of the pool.
+     *
+     * @return The y coordinate of the pool.
+     */
+    public int getYPosition() {
+        return yPosition;
+    }
+
+    /**
+     * This gets the width of the pool.
+     *
+     * @return The width of the pool.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * This gets the height of the pool.
+     *
+     * @return The height of the pool.
+     */
+    public int getHeight() {
+        return height;
+    }
     /**
      * This gets the bottom line of the pool; used to determine faculty position with respect to this object
      * and displaying/playing animations and sounds.
@@ -54,8 +137,7 @@ public class Pool {
      * @return The bottom line of the pool
      */
     public Line2D getMiddleLine() {
-    	return new Line2D.Float( this.xPosition , ((this.yPosition + this.image.getHeight(null)) / 2) , 
-				(this.xPosition + this.image.getWidth(null)) , ((this.yPosition + this.image.getHeight(null)) / 2) );
+    	return this.middleLine;
     }
     
     /**
@@ -65,8 +147,51 @@ public class Pool {
      * @return The bottom y coordinate of the pool
      */
     public Line2D getBottomLine() {
-    	return new Line2D.Float( this.xPosition , (this.yPosition + this.image.getHeight(null)) - 10, 
-    							(this.xPosition + this.image.getWidth(null)) , (this.yPosition + this.image.getHeight(null)) - 10 );
+    	return this.bottomLine;
+    }
+
+    /**
+     * This returns the y coordinate of the pool's middle line.
+     * 
+     * @return The y coordinate of the middle line.
+     */
+    public int getMiddleLineY() {
+    	return this.middleLineY;
+    }
+
+    /**
+     * This returns the y coordinate of the pool's bottom line.
+     * 
+     * @return The y coordinate of the bottom line.
+     */
+    public int getBottomLineY() {
+    	return this.bottomLineY;
+    }
+
+    /**
+     * This is used to test if a box (a person's bounding box) crosses the middle line of the pool.
+     * 
+     * @param x			The x coordinate of the box.
+     * @param y			The y coordinate of the box.
+     * @param width		The width of the box.
+     * @param height	The height of the box.
+     * @return True if the box crosses or touches the middle line.
+     */
+    public boolean middleLineIntersects(int x, int y, int width, int height) {
+    	return Collision.intersectsHorizontalLine(x, y, width, height, this.xPosition, this.xPosition + this.width, this.middleLineY);
+    }
+
+    /**
+     * This is used to test if a box (a person's bounding box) crosses the bottom line of the pool.
+     * 
+     * @param x			The x coordinate of the box.
+     * @param y			The y coordinate of the box.
+     * @param width		The width of the box.
+     * @param height	The height of the box.
+     * @return True if the box crosses or touches the bottom line.
+     */
+    public boolean bottomLineIntersects(int x, int y, int width, int height) {
+    	return Collision.intersectsHorizontalLine(x, y, width, height, this.xPosition, this.xPosition + this.width, this.bottomLineY);
     }
 
 }
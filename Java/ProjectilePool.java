@@ -0,0 +1,326 @@
+import java.awt.Graphics;
+
+/**
+ * This holds all the projectiles that are used to hit the targets near the faculty. A fixed number of projectiles is 
+ * made when the game starts and they are used again and again, so firing doesn't create any objects.
+ * 
+ * The projectiles are kept in arrays (one array for the x coordinates, one for the y coordinates and so on) instead of 
+ * one object per projectile. The projectiles that are flying are always at the start of the arrays: when a projectile 
+ * leaves the field, the last flying projectile is moved into its place. This means a projectile's index can change 
+ * between updates, so an index is only good until the next call to move().
+ * 
+ * A new projectile can be fired while others are still flying, as long as there is a free projectile and enough time 
+ * has passed since the last shot.
+ */
+public class ProjectilePool {
+
+    /**
+     * This is the distance a projectile moves each update, along each axis it moves on.
+     */
+    private static final int SPEED = 20;
+
+    /**
+     * Stores the image for the projectiles.
+     */
+    private final Sprite image;
+
+    /**
+     * Stores the width and height of a projectile.
+     */
+    private final int width, height;
+
+    /**
+     * This is the most projectiles that can fly at once.
+     */
+    private final int capacity;
+
+    /**
+     * This is the number of updates that have to pass after a shot before the next one can be fired.
+     */
+    private final int fireCooldown;
+
+    /**
+     * These store the current position of each projectile.
+     */
+    private final int [] xPosition, yPosition;
+
+    /**
+     * These store the position of each projectile before it last moved. They are used to draw the projectile 
+     * between its previous and current position.
+     */
+    private final int [] previousXPosition, previousYPosition;
+
+    /**
+     * These store the distance each projectile moves along each axis every update.
+     */
+    private final int [] xVelocity, yVelocity;
+
+    /**
+     * These store where each projectile was drawn on the last frame, so that the places can be drawn again when they move.
+     */
+    private final int [] drawnXPosition, drawnYPosition;
+
+    /**
+     * This is the number of projectiles that were drawn on the last frame.
+     */
+    private int drawnCount = 0;
+
+    /**
+     * This is the number of projectiles that are flying. They are the first ones in the arrays.
+     */
+    private int active = 0;
+
+    /**
+     * This is the number of updates left until the next shot can be fired.
+     */
+    private int cooldown = 0;
+
+    /**
+     * This is the position a new projectile is fired from.
+     */
+    private int startX, startY;
+
+    /**
+     * This is the direction the next projectile is fired in.
+     */
+    private Direction direction = Direction.FORWARD;
+
+    /**
+     * This indicates that the player asked to fire. The shot is fired on the next update. The game panel hands the
+     * player's input to the game on the thread that updates it, between two updates, so this doesn't have to be volatile.
+     */
+    private boolean fireRequested = false;
+
+    /**
+     * This creates the projectiles.
+     * 
+     * @param fileName		The image used to draw a projectile.
+     * @param capacity		The most projectiles that can fly at once.
+     * @param fireCooldown	The number of updates that have to pass after a shot before the next one can be fired.
+     * @param startX		The x coordinate a projectile is fired from until move() is called.
+     * @param startY		The y coordinate a projectile is fired from until move() is called.
+     */
+    public ProjectilePool(String fileName, int capacity, int fireCooldown, int startX, int startY) {
+        this.image = SpriteCache.getAtlasSprite(fileName, 20, 20);
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.capacity = Math.max(capacity, 1);
+        this.fireCooldown = Math.max(fireCooldown, 0);
+        this.xPosition = new int[this.capacity];
+        this.yPosition = new int[this.capacity];
+        this.previousXPosition = new int[this.capacity];
+        this.previousYPosition = new int[this.capacity];
+        this.xVelocity = new int[this.capacity];
+        this.yVelocity = new int[this.capacity];
+        this.drawnXPosition = new int[this.capacity];
+        this.drawnYPosition = new int[this.capacity];
+        this.startX = startX;
+        this.startY = startY;
+    }
+
+    /**
+     * This asks for a projectile to be fired on the next update. Nothing is fired if all the projectiles are flying or 
+     * the last shot was too recent.
+     */
+    public void fire() {
+        fireRequested = true;
+    }
+
+    /**
+     * This sets the direction the next projectiles are fired in. Projectiles that are already flying keep their direction.
+     * 
+     * @param direction	Direction of the next projectiles.
+     */
+    public void setDirection(Direction direction) {
+        this.direction = direction;
+    }
+
+    /**
+     * This fires a projectile if one was asked for, and then moves all the flying projectiles. Projectiles that leave the
+     * field are put back in the pool.
+     * 
+     * @param startX	The x coordinate new projectiles are fired from after this update.
+     * @param startY	The y coordinate new projectiles are fired from after this update.
+     */
+    public void move(int startX, int startY) {
+        if (cooldown > 0) {
+            cooldown--;
+        }
+
+        /**
+         * A shot starts where the slider was at the end of the last update and moves on this update.
+         */
+        if (fireRequested) {
+            fireRequested = false;
+            if (active < capacity && cooldown == 0) {
+                launch(this.startX, this.startY, direction);
+                cooldown = fireCooldown;
+            }
+        }
+
+        for (int i = 0; i < active; i++) {
+            previousXPosition[i] = xPosition[i];
+            previousYPosition[i] = yPosition[i];
+            xPosition[i] += xVelocity[i];
+            yPosition[i] += yVelocity[i];
+        }
+
+        /**
+         * Put the projectiles that went beyond the bounds of the field back in the pool. The last flying projectile 
+         * takes the place of each one that is put back.
+         */
+        int i = 0;
+        while (i < active) {
+            if (yPosition[i] < 0 || yPosition[i] > GameWorld.HEIGHT || xPosition[i] + width < 0 || xPosition[i] > GameWorld.WIDTH) {
+                active--;
+                xPosition[i] = xPosition[active];
+                yPosition[i] = yPosition[active];
+                previousXPosition[i] = previousXPosition[active];
+                previousYPosition[i] = previousYPosition[active];
+                xVelocity[i] = xVelocity[active];
+                yVelocity[i] = yVelocity[active];
+            } else {
+                i++;
+            }
+        }
+
+        this.startX = startX;
+        this.startY = startY;
+    }
+
+    /**
+     * This takes a projectile from the pool and starts it flying.
+     * 
+     * @param x			The x coordinate of the projectile.
+     * @param y			The y coordinate of the projectile.
+     * @param direction	The direction the projectile flies in.
+     */
+    private void launch(int x, int y, Direction direction) {
+        int i = active++;
+        xPosition[i] = x;
+        yPosition[i] = y;
+        previousXPosition[i] = x;
+        previousYPosition[i] = y;
+        yVelocity[i] = -SPEED;
+        switch (direction) {
+        case LEFT:
+            xVelocity[i] = -SPEED;
+            break;
+        case RIGHT:
+            xVelocity[i] = SPEED;
+            break;
+        default:
+            xVelocity[i] = 0;
+            break;
+        }
+    }
+
+    /**
+     * Draws all the flying projectiles to the off-screen image.
+     * 
+     * @param graphics		A reference to the off-screen image.
+     * @param interpolation	How far (from 0 to 1) the projectiles are between their previous and current position.
+     */
+    public void draw(Graphics graphics, float interpolation) {
+        for (int i = 0; i < active; i++) {
+            image.draw(graphics, getDrawXPosition(i, interpolation), getDrawYPosition(i, interpolation));
+        }
+    }
+
+    /**
+     * This adds the places where projectiles were drawn on the last frame and the places they will be drawn this frame to
+     * the region that has to be drawn again. Flying projectiles move every update, so they are always added.
+     * 
+     * @param region		The parts of the screen that have to be drawn again.
+     * @param interpolation	How far (from 0 to 1) the projectiles are between their previous and current position.
+     */
+    public void markDirty(DirtyRegion region, float interpolation) {
+        for (int i = 0; i < drawnCount; i++) {
+            region.add(drawnXPosition[i], drawnYPosition[i], width, height);
+        }
+        for (int i = 0; i < active; i++) {
+            drawnXPosition[i] = getDrawXPosition(i, interpolation);
+            drawnYPosition[i] = getDrawYPosition(i, interpolation);
+            region.add(drawnXPosition[i], drawnYPosition[i], width, height);
+        }
+        drawnCount = active;
+    }
+
+    /**
+     * This returns the x coordinate a projectile is drawn at, between its previous and current position.
+     * 
+     * @param index			The index of the projectile.
+     * @param interpolation	How far (from 0 to 1) the projectile is between its previous and current position.
+     * @return The x coordinate the projectile is drawn at.
+     */
+    private int getDrawXPosition(int index, float interpolation) {
+        return Math.round(previousXPosition[index] + (xPosition[index] - previousXPosition[index]) * interpolation);
+    }
+
+    /**
+     * This returns the y coordinate a projectile is drawn at, between its previous and current position.
+     * 
+     * @param index			The index of the projectile.
+     * @param interpolation	How far (from 0 to 1) the projectile is between its previous and current position.
+     * @return The y coordinate the projectile is drawn at.
+     */
+    private int getDrawYPosition(int index, float interpolation) {
+        return Math.round(previousYPosition[index] + (yPosition[index] - previousYPosition[index]) * interpolation);
+    }
+
+    /**
+     * This returns the number of projectiles that are flying. They have the indexes 0 up to getActiveCount() - 1.
+     * 
+     * @return The number of projectiles that are flying.
+     */
+    public int getActiveCount() {
+        return active;
+    }
+
+    /**
+     * This returns the most projectiles that can fly at once.
+     * 
+     * @return The most projectiles that can fly at once.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * This gets the x coordinate of a flying projectile.
+     * 
+     * @param index	The index of the projectile.
+     * @return The x coordinate of the projectile.
+     */
+    public int getXPosition(int index) {
+        return xPosition[index];
+    }
+
+    /**
+     * This gets the y coordinate of a flying projectile.
+     * 
+     * @param index	The index of the projectile.
+     * @return The y coordinate of the projectile.
+     */
+    public int getYPosition(int index) {
+        return yPosition[index];
+    }
+
+    /**
+     * This gets the width of a projectile.
+     * 
+     * @return The width of a projectile.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * This gets the height of a projectile.
+     * 
+     * @return The height of a projectile.
+     */
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,49 @@
+import java.awt.Component;
+import java.awt.Graphics;
+
+import javax.swing.JPanel;
+
+/**
+ * A Renderer owns the off-screen buffer that the game is drawn to and is responsible for putting that buffer on the screen.
+ * The game panel can use one of several renderers which is chosen at startup (see GamePanel), so that the different
+ * ways of getting the game onto the screen can be compared with each other.
+ *
+ * A frame is drawn by getting a Graphics object with getDrawGraphics(), drawing the whole game with it, disposing it
+ * and then calling show(). If show() returns false, the contents of the buffer were lost before they made it to the screen
+ * and the frame has to be drawn again.
+ *
+ * Some buffers keep what was drawn to them from one frame to the next. For those, hasPreviousFrame() returns true and only the
+ * parts of the frame that changed have to be drawn again. Buffers that are flipped, or whose contents were lost, have to be drawn in full.
+ */
+public interface Renderer {
+
+    /**
+     * This is called once by the game panel when it is created so the renderer can set itself up.
+     *
+     * @param panel	The game panel that the game is displayed in.
+     * @return The component that the game is displayed on. This is the component that should receive the keyboard input.
+     */
+    Component attach(JPanel panel);
+
+    /**
+     * This returns a Graphics object that draws to the off-screen buffer. The caller must dispose of it once the frame has been drawn.
+     *
+     * @return A Graphics object for the off-screen buffer, or null if the buffer can't be created yet (for example if the game panel
+     * has not been added to the window yet).
+     */
+    Graphics getDrawGraphics();
+
+    /**
+     * This indicates if the buffer returned by the last call to getDrawGraphics() still holds the last frame that was drawn to it.
+     *
+     * @return True if only the parts of the frame that changed have to be drawn. False if the whole frame has to be drawn.
+     */
+    boolean hasPreviousFrame();
+
+    /**
+     * This puts the off-screen buffer on the screen.
+     *
+     * @return True if the frame was shown. False if the contents of the buffer were lost and the frame has to be drawn again.
+     */
+    boolean show();
+}
@@ -0,0 +1,97 @@
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This plays the games recorded in input journals again, without a window and as fast as the computer can, and checks
+ * that each game gets the score and lasts the number of updates that were recorded. It is used to check a reported
+ * score without playing the game again in real time, and to test that a change to the game logic didn't change how
+ * recorded games play out.
+ *
+ * Games are recorded by running the game with -Ddunkaprof.journal=file. The journal can then be replayed with
+ * "java ReplayJournal file ...". It exits with 1 if any game didn't play out the way it was recorded.
+ */
+public class ReplayJournal {
+
+    /**
+     * This replays the journals given on the command line.
+     *
+     * @param args	The journals.
+     */
+    public static void main(String [] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: java ReplayJournal journal ...");
+            System.exit(2);
+        }
+        AudioEngine.getInstance().setMuted(true);
+
+        boolean failed = false;
+        for (String fileName : args) {
+            List<InputJournal.Replay> games;
+            try {
+                games = InputJournal.read(fileName);
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+                failed = true;
+                continue;
+            }
+            for (int i = 0; i < games.size(); i++) {
+                String name = fileName + " game " + (i + 1);
+                if (!replay(name, games.get(i))) {
+                    failed = true;
+                }
+            }
+        }
+        AudioEngine.getInstance().close();
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * This replays one game and prints how it played out.
+     *
+     * @param name	The name the game is reported under.
+     * @param game	The recorded game.
+     * @return True if the game played out the way it was recorded (or its end wasn't recorded and there was nothing to check).
+     */
+    private static boolean replay(String name, InputJournal.Replay game) {
+        if (game.getMaxProjectiles() != GameWorld.getMaxProjectiles() || game.getFireInterval() != GameWorld.getFireInterval()) {
+            System.out.println(name + ": it was played with -Ddunkaprof.maxProjectiles=" + game.getMaxProjectiles()
+                               + " -Ddunkaprof.fireInterval=" + game.getFireInterval() + ", replay it with the same settings");
+            return false;
+        }
+        Level level;
+        try {
+            level = Level.load(game.getLevelName());
+        } catch (IOException e) {
+            System.out.println(name + ": " + e.getMessage());
+            return false;
+        }
+        if (level.getHash() != game.getLevelHash()) {
+            System.out.println(name + ": the level " + game.getLevelName() + " was changed after the game was played, so it can't be replayed");
+            return false;
+        }
+
+        /**
+         * A game that was quit is played up to the update it was quit on. Any other game is played until its time runs out.
+         */
+        game.rewind();
+        long start = System.nanoTime();
+        GameWorld world = new GameWorld(game.getTickTime(), null, level);
+        world.getClock().resumeClock();
+        HeadlessSimulation.step(world, game, game.hasEnd() && !game.isFinished() ? game.getEndTick() : Long.MAX_VALUE);
+        long elapsed = System.nanoTime() - start;
+
+        String result = name + ": " + game.getInputCount() + " inputs, score " + world.getScore().getScore() + " after "
+                        + world.getTick() + " updates, replayed in " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms";
+        if (!game.hasEnd()) {
+            System.out.println(result + " (the recording was cut off, so there is nothing to check)");
+            return true;
+        }
+        boolean matches = world.getScore().getScore() == game.getScore() && world.getTick() == game.getEndTick();
+        System.out.println(result + (matches ? ", as recorded" : ", but " + game.getScore() + " after " + game.getEndTick()
+                                     + " updates was recorded"));
+        return matches;
+    }
+}
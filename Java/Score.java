@@ -33,6 +33,26 @@ public class Score {
      */
     private Font font;
 
+    /**
+     * This is the score that was shown on the last frame, or -1 if the score hasn't been drawn yet.
+     */
+    private int drawnScore = -1;
+
+    /**
+     * This draws the "Score" part of the score.
+     */
+    private final TextLabel label;
+
+    /**
+     * This draws the number.
+     */
+    private final DigitAtlas digits;
+
+    /**
+     * This remembers where the text of the score was drawn on the last frame.
+     */
+    private final DirtyTracker tracker = new DirtyTracker();
+
     /**
      * This is used to construct the score object.
      * 
@@ -46,6 +66,8 @@ public class Score {
         this.font = font;
         this.xPosition = xPosition;
         this.yPosition = yPosition;
+        this.label = new TextLabel("Score \t", font, color);
+        this.digits = new DigitAtlas(font, color);
     }
 
     /**
@@ -71,9 +93,28 @@ public class Score {
      * @param graphics	-	A reference to the off-screen graphics buffer.
      */
     public void draw(Graphics graphics) {
-        // Draw the score
-        graphics.setColor(this.color);
-        graphics.setFont(font);
-        graphics.drawString("Score \t" + this.currentScore + "", this.xPosition, this.yPosition);
+        // Draw the score. The text is only drawn into an image once, and the number is put together from the images of its digits.
+        label.draw(graphics, this.xPosition, this.yPosition);
+        digits.draw(graphics, this.currentScore, this.xPosition + label.getWidth(), this.yPosition);
+    }
+
+    /**
+     * This adds the place where the score was drawn last frame and where it will be drawn this frame to the region 
+     * that has to be drawn again, if the score changed.
+     * 
+     * @param region	-	The parts of the screen that have to be drawn again.
+     */
+    public void markDirty(DirtyRegion region) {
+        if (!label.isRendered() || !digits.isRendered()) {
+
+            /**
+             * The score hasn't been drawn yet, so the size of its text isn't known.
+             */
+            region.markAll();
+        } else if (currentScore != drawnScore) {
+            tracker.track(region, this.xPosition - TextLabel.PADDING, this.yPosition - label.getAscent(), 
+                          label.getWidth() + digits.getWidth(currentScore) + 2 * TextLabel.PADDING, label.getHeight());
+            drawnScore = currentScore;
+        }
     }
 }
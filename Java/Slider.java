@@ -1,9 +1,4 @@
 import java.awt.Graphics;
-import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-
-import javax.imageio.ImageIO;
 
 /**
  * This is object used as a starting point for our projectiles in the game.
@@ -14,13 +9,19 @@ public class Slider {
     /**
      * This is the image which represents the slider on the screen.
      */
-    private BufferedImage image;
+    private Sprite image;
 
     /**
      *	This is the current x coordinate of the slider on the screen.
      */
     private int xPosition;
 
+    /**
+     *	This is the x coordinate of the slider before the last time it moved. It is used to draw the slider
+     *	between its previous and current position.
+     */
+    private int previousXPosition;
+
     /**
      * This is the current y coordinate of the slider on the screen.
      */
@@ -42,6 +43,11 @@ public class Slider {
      */
     boolean moving = true;
 
+    /**
+     * This remembers where the slider was drawn on the last frame.
+     */
+    private final DirtyTracker tracker = new DirtyTracker();
+
     /**
      * 
      * @param fileName Name of the image file that will be used to represent this slider.
@@ -50,12 +56,9 @@ public class Slider {
      * @param panelWidth Width of the container to determine how far this slider will move in any direction.
      */
     public Slider(String fileName, int xPosition, int yPosition, int panelWidth) {
-        try {
-            image = ImageIO.read(new File(fileName));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        image = SpriteCache.getAtlasSprite(fileName);
         this.xPosition = xPosition;
+        this.previousXPosition = xPosition;
         this.yPosition = yPosition;
         this.panelWidth = panelWidth;
     }
@@ -63,14 +66,36 @@ public class Slider {
     /**
      * Draws the slider on the screen
      * @param graphics
+     * @param interpolation How far (from 0 to 1) the slider is between its previous and current position.
      */
-    public void draw(Graphics graphics) {
+    public void draw(Graphics graphics, float interpolation) {
 
         // Draw the slider
-        graphics.drawImage(image, xPosition, yPosition, null); 
+        image.draw(graphics, getDrawXPosition(interpolation), yPosition);
 
     }  // end of draw()
 
+    /**
+     * This adds the parts of the screen where the slider was drawn last frame and will be drawn this frame to 
+     * the region that has to be drawn again, if it moved.
+     * 
+     * @param region		The parts of the screen that have to be drawn again.
+     * @param interpolation How far (from 0 to 1) the slider is between its previous and current position.
+     */
+    public void markDirty(DirtyRegion region, float interpolation) {
+        tracker.track(region, image, getDrawXPosition(interpolation), yPosition);
+    }
+
+    /**
+     * This returns the x coordinate the slider is drawn at, between its previous and current position.
+     * 
+     * @param interpolation How far (from 0 to 1) the slider is between its previous and current position.
+     * @return The x coordinate the slider is drawn at.
+     */
+    private int getDrawXPosition(float interpolation) {
+        return Math.round(previousXPosition + (xPosition - previousXPosition) * interpolation);
+    }
+
     /**
      * Represents the direction in which the slider is moving.
      */
@@ -107,6 +132,7 @@ public class Slider {
      * or not.
      */
     public void move(int distance) {
+        previousXPosition = xPosition;
         if(moving) {
             switch(this.direction) {
             case RIGHT:
@@ -0,0 +1,112 @@
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+/**
+ * This is an image that is stored as a region of a larger image (a page of a TextureAtlas). Many sprites share one 
+ * page, so drawing them all uses the same image.
+ * 
+ * Sprites are shared, so they and their pages must not be drawn to.
+ */
+public final class Sprite {
+
+    /**
+     * This is the image the sprite is stored in.
+     */
+    private final BufferedImage sheet;
+
+    /**
+     * This is the position of the sprite in the sheet.
+     */
+    private final int x, y;
+
+    /**
+     * This is the size of the sprite.
+     */
+    private final int width, height;
+
+    /**
+     * This creates a sprite from a region of a sheet.
+     * 
+     * @param sheet		The image the sprite is stored in.
+     * @param x			The x coordinate of the sprite in the sheet.
+     * @param y			The y coordinate of the sprite in the sheet.
+     * @param width		The width of the sprite.
+     * @param height	The height of the sprite.
+     */
+    public Sprite(BufferedImage sheet, int x, int y, int width, int height) {
+        this.sheet = sheet;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * This draws the sprite at its own size.
+     * 
+     * @param graphics	The graphics to draw on.
+     * @param dx		The x coordinate to draw the sprite at.
+     * @param dy		The y coordinate to draw the sprite at.
+     */
+    public void draw(Graphics graphics, int dx, int dy) {
+        graphics.drawImage(sheet, dx, dy, dx + width, dy + height, x, y, x + width, y + height, null);
+    }
+
+    /**
+     * This draws the sprite scaled to a size.
+     * 
+     * @param graphics	The graphics to draw on.
+     * @param dx		The x coordinate to draw the sprite at.
+     * @param dy		The y coordinate to draw the sprite at.
+     * @param dwidth	The width to draw the sprite at.
+     * @param dheight	The height to draw the sprite at.
+     */
+    public void draw(Graphics graphics, int dx, int dy, int dwidth, int dheight) {
+        graphics.drawImage(sheet, dx, dy, dx + dwidth, dy + dheight, x, y, x + width, y + height, null);
+    }
+
+    /**
+     * This returns the image the sprite is stored in.
+     * 
+     * @return The image the sprite is stored in.
+     */
+    public BufferedImage getSheet() {
+        return sheet;
+    }
+
+    /**
+     * This returns the x coordinate of the sprite in its sheet.
+     * 
+     * @return The x coordinate of the sprite in its sheet.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * This returns the y coordinate of the sprite in its sheet.
+     * 
+     * @return The y coordinate of the sprite in its sheet.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * This returns the width of the sprite.
+     * 
+     * @return The width of the sprite.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * This returns the height of the sprite.
+     * 
+     * @return The height of the sprite.
+     */
+    public int getHeight() {
+        return height;
+    }
+}
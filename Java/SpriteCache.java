@@ -0,0 +1,233 @@
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+
+/**
+ * This class loads the images used in the game and keeps them so every image is only loaded once.
+ * 
+ * Each image is read from its file once, scaled to the size it is drawn at right away, and copied into an
+ * image that has the same format as the screen. Images in the screen's format can be kept in video memory 
+ * and drawn by the graphics card, which isn't possible for the images returned by ImageIO.read() or getScaledInstance().
+ * 
+ * Images are stored by their file name and size, so all the objects that use the same image at the same size 
+ * (for example the targets above each person) share one copy of it. Since the images are shared they must not be drawn to.
+ * 
+ * Small images that are drawn often (the people, the targets and the animation frames) are packed into a TextureAtlas 
+ * and returned as Sprites by getAtlasSprite(). Large images (the background and the tanks) are kept as images of their own.
+ * 
+ * The scaled images are also kept on disk by the AssetCache, so when the game is launched again they are read back 
+ * as they are instead of being decoded and scaled again.
+ */
+public final class SpriteCache {
+
+    /**
+     * This stores the loaded images by their file name and size.
+     */
+    private static final ConcurrentHashMap<String, BufferedImage> sprites = new ConcurrentHashMap<String, BufferedImage>();
+
+    /**
+     * This stores the sprites that were packed into the atlas by their file name and size.
+     */
+    private static final ConcurrentHashMap<String, Sprite> atlasSprites = new ConcurrentHashMap<String, Sprite>();
+
+    /**
+     * This is the atlas that the sprites are packed into.
+     */
+    private static final TextureAtlas atlas = new TextureAtlas();
+
+    /**
+     * This is how images are scaled, and the name it is stored under in the AssetCache. The name must be changed whenever 
+     * the way images are scaled changes, so images scaled the old way aren't taken from the cache.
+     */
+    private static final Object SCALING = RenderingHints.VALUE_INTERPOLATION_BILINEAR;
+    private static final String SCALING_NAME = "bilinear";
+
+    /**
+     * This class only has static methods, so it can't be constructed.
+     */
+    private SpriteCache() {
+    }
+
+    /**
+     * This returns the image stored in a file at its original size.
+     * 
+     * @param fileName	The file which stores the image.
+     * @return The image, or null if it couldn't be loaded.
+     */
+    public static BufferedImage getSprite(String fileName) {
+        return getSprite(fileName, 0, 0);
+    }
+
+    /**
+     * This returns the image stored in a file scaled to the given size.
+     * 
+     * @param fileName	The file which stores the image.
+     * @param width		The width the image is scaled to, or 0 to keep the original width.
+     * @param height	The height the image is scaled to, or 0 to keep the original height.
+     * @return The image, or null if it couldn't be loaded.
+     */
+    public static BufferedImage getSprite(String fileName, int width, int height) {
+        String key = fileName + "@" + width + "x" + height;
+        BufferedImage sprite = sprites.get(key);
+        if (sprite == null) {
+            sprite = loadSprite(fileName, width, height);
+            if (sprite != null) {
+                BufferedImage loaded = sprites.putIfAbsent(key, sprite);
+                if (loaded != null) {
+                    sprite = loaded;	// Another thread loaded it first, so use that one.
+                }
+            }
+        }
+        return sprite;
+    }
+
+    /**
+     * This returns the image stored in a file at its original size, packed into the atlas.
+     * 
+     * @param fileName	The file which stores the image.
+     * @return The sprite, or null if the image couldn't be loaded.
+     */
+    public static Sprite getAtlasSprite(String fileName) {
+        return getAtlasSprite(fileName, 0, 0);
+    }
+
+    /**
+     * This returns the image stored in a file scaled to the given size, packed into the atlas.
+     * 
+     * @param fileName	The file which stores the image.
+     * @param width		The width the image is scaled to, or 0 to keep the original width.
+     * @param height	The height the image is scaled to, or 0 to keep the original height.
+     * @return The sprite, or null if the image couldn't be loaded.
+     */
+    public static Sprite getAtlasSprite(String fileName, int width, int height) {
+        String key = fileName + "@" + width + "x" + height;
+        Sprite sprite = atlasSprites.get(key);
+        if (sprite == null) {
+            BufferedImage source = readScaledImage(fileName, width, height);
+            if (source == null) {
+                return null;
+            }
+            synchronized (atlas) {
+
+                /**
+                 * Check again while holding the atlas, so two threads loading the same image don't both pack it.
+                 */
+                sprite = atlasSprites.get(key);
+                if (sprite == null) {
+                    sprite = atlas.add(source, source.getWidth(), source.getHeight());
+                    atlasSprites.put(key, sprite);
+                }
+            }
+        }
+        return sprite;
+    }
+
+    /**
+     * This returns the number of pages the atlas uses.
+     * 
+     * @return The number of pages in the atlas.
+     */
+    public static int getAtlasPageCount() {
+        return atlas.getPageCount();
+    }
+
+    /**
+     * This reads an image from a file, scales it and copies it into an image in the screen's format.
+     * 
+     * @param fileName	The file which stores the image.
+     * @param width		The width the image is scaled to, or 0 to keep the original width.
+     * @param height	The height the image is scaled to, or 0 to keep the original height.
+     * @return The image, or null if it couldn't be loaded.
+     */
+    private static BufferedImage loadSprite(String fileName, int width, int height) {
+        BufferedImage source = readScaledImage(fileName, width, height);
+        if (source == null) {
+            return null;
+        }
+
+        BufferedImage sprite = createCompatibleImage(source.getWidth(), source.getHeight(), source.getTransparency());
+        Graphics2D graphics = sprite.createGraphics();
+        graphics.setComposite(AlphaComposite.Src);	// Copy the pixels as they are.
+        graphics.drawImage(source, 0, 0, null);
+        graphics.dispose();
+        return sprite;
+    }
+
+    /**
+     * This returns the image stored in a file scaled to the given size. The scaled image is taken from the AssetCache if 
+     * it was stored there on an earlier launch; otherwise the file is decoded and scaled, and the result is stored.
+     * 
+     * @param fileName	The file which stores the image.
+     * @param width		The width the image is scaled to, or 0 to keep the original width.
+     * @param height	The height the image is scaled to, or 0 to keep the original height.
+     * @return The scaled image (TYPE_INT_ARGB, or TYPE_INT_RGB if it is opaque), or null if it couldn't be loaded.
+     */
+    private static BufferedImage readScaledImage(String fileName, int width, int height) {
+        BufferedImage scaled = AssetCache.readImage(fileName, width, height, SCALING_NAME);
+        if (scaled != null) {
+            return scaled;
+        }
+
+        BufferedImage source = readImage(fileName);
+        if (source == null) {
+            return null;
+        }
+        int scaledWidth = width > 0 ? width : source.getWidth();
+        int scaledHeight = height > 0 ? height : source.getHeight();
+        int type = source.getColorModel().getTransparency() == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+
+        scaled = new BufferedImage(scaledWidth, scaledHeight, type);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, SCALING);
+        graphics.drawImage(source, 0, 0, scaledWidth, scaledHeight, null);
+        graphics.dispose();
+
+        AssetCache.writeImage(fileName, width, height, SCALING_NAME, scaled);
+        return scaled;
+    }
+
+    /**
+     * This reads an image from a file.
+     * 
+     * @param fileName	The file which stores the image.
+     * @return The image as it is stored in the file, or null if it couldn't be read.
+     */
+    private static BufferedImage readImage(String fileName) {
+        BufferedImage source;
+        try {
+            source = ImageIO.read(new File(fileName));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        if (source == null) {
+            System.out.println("Unable to read the image " + fileName);
+        }
+        return source;
+    }
+
+    /**
+     * This creates an empty image in the same format as the screen.
+     * 
+     * @param width			The width of the image.
+     * @param height		The height of the image.
+     * @param transparency	Transparency.OPAQUE, Transparency.BITMASK or Transparency.TRANSLUCENT
+     * @return An empty image in the same format as the screen. If there is no screen (the game is running headless), a plain ARGB or RGB image.
+     */
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        }
+        GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        return configuration.createCompatibleImage(width, height, transparency);
+    }
+}
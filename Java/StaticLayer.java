@@ -0,0 +1,116 @@
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * This holds the parts of the game that never move (the background and the dunk tanks) drawn together into one image, 
+ * so every frame starts by copying that one image instead of drawing the background and each tank.
+ * 
+ * The image is made the first time it is drawn and kept until invalidate() is called, which has to be done if the 
+ * background or a tank is changed or moved. It is in the screen's format and never drawn to after it is made, so Java 
+ * can keep a copy of it in video memory and draw it with the graphics card.
+ * 
+ * The tanks are in front of the people, so when a person is drawn over a tank (while he sinks into it, or when his 
+ * splash is playing) the tank has to be drawn in front of him again. clearTanks() and drawTanks() are called around 
+ * drawing each person to do this.
+ */
+public class StaticLayer {
+
+    /**
+     * This is the background.
+     */
+    private final Background background;
+
+    /**
+     * These are the dunk tanks.
+     */
+    private final Pool [] pools;
+
+    /**
+     * This is the size of the layer.
+     */
+    private final int width, height;
+
+    /**
+     * This is the background and the tanks drawn together, or null if it has to be made again.
+     */
+    private BufferedImage image = null;
+
+    /**
+     * This creates the layer.
+     * 
+     * @param background	The background.
+     * @param pools			The dunk tanks.
+     * @param width			The width of the screen.
+     * @param height		The height of the screen.
+     */
+    public StaticLayer(Background background, Pool [] pools, int width, int height) {
+        this.background = background;
+        this.pools = pools;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * This makes the layer be drawn again the next time it is used. It has to be called if the background or a tank is changed or moved.
+     */
+    public void invalidate() {
+        if (image != null) {
+            image.flush();
+            image = null;
+        }
+    }
+
+    /**
+     * This draws the background and the tanks.
+     * 
+     * @param graphics	The Graphics object to draw with.
+     */
+    public void draw(Graphics graphics) {
+        if (image == null) {
+            image = SpriteCache.createCompatibleImage(width, height, Transparency.OPAQUE);
+            Graphics2D layerGraphics = image.createGraphics();
+            background.draw(layerGraphics);
+            for (Pool pool : pools) {
+                pool.draw(layerGraphics);
+            }
+            layerGraphics.dispose();
+        }
+        graphics.drawImage(image, 0, 0, null);
+    }
+
+    /**
+     * This draws the background over the parts of the tanks that are inside a box, so that something can be drawn 
+     * behind the tanks there.
+     * 
+     * @param graphics	The Graphics object to draw with.
+     * @param box		The box that is about to be drawn in.
+     */
+    public void clearTanks(Graphics graphics, Rectangle box) {
+        for (Pool pool : pools) {
+            if (pool.overlaps(box.x, box.y, box.width, box.height)) {
+                int x1 = Math.max(box.x, pool.getXPosition());
+                int y1 = Math.max(box.y, pool.getYPosition());
+                int x2 = Math.min(box.x + box.width, pool.getXPosition() + pool.getWidth());
+                int y2 = Math.min(box.y + box.height, pool.getYPosition() + pool.getHeight());
+                background.draw(graphics, x1, y1, x2 - x1, y2 - y1);
+            }
+        }
+    }
+
+    /**
+     * This draws the parts of the tanks that are inside a box, in front of what was drawn there.
+     * 
+     * @param graphics	The Graphics object to draw with.
+     * @param box		The box that was drawn in.
+     */
+    public void drawTanks(Graphics graphics, Rectangle box) {
+        for (Pool pool : pools) {
+            if (pool.overlaps(box.x, box.y, box.width, box.height)) {
+                pool.draw(graphics, box.x, box.y, box.width, box.height);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * This is a piece of text that is drawn into an image once and then drawn by copying the image. Drawing text with 
+ * drawString() works out the shape of every letter from the font each time, which is much slower than copying an image.
+ * 
+ * The image is made the first time the label is drawn, using the Graphics object it is drawn with, and made again only
+ * when the text is changed with setText().
+ */
+public class TextLabel {
+
+    /**
+     * This is the space left to the left and right of the text in the image, for letters that reach past their width.
+     */
+    public static final int PADDING = 4;
+
+    /**
+     * This is the font of the text, or null to use the font of the Graphics object the label is first drawn with.
+     */
+    private final Font font;
+
+    /**
+     * This is the color of the text.
+     */
+    private final Color color;
+
+    /**
+     * This is the text.
+     */
+    private String text;
+
+    /**
+     * This is the text drawn into an image, or null if it has to be drawn again.
+     */
+    private BufferedImage image = null;
+
+    /**
+     * These are the width of the text and the distance from the top of the image to the baseline of the text.
+     */
+    private int width, ascent;
+
+    /**
+     * This is the height of the image.
+     */
+    private int height;
+
+    /**
+     * This creates a label.
+     * 
+     * @param text	The text of the label.
+     * @param font	The font of the text, or null to use the font of the Graphics object the label is first drawn with.
+     * @param color	The color of the text.
+     */
+    public TextLabel(String text, Font font, Color color) {
+        this.text = text;
+        this.font = font;
+        this.color = color;
+    }
+
+    /**
+     * This changes the text of the label. The image is only made again if the text is different.
+     * 
+     * @param text	The new text.
+     */
+    public void setText(String text) {
+        if (!text.equals(this.text)) {
+            this.text = text;
+            if (image != null) {
+                image.flush();
+                image = null;
+            }
+        }
+    }
+
+    /**
+     * This draws the label.
+     * 
+     * @param graphics	The Graphics object to draw with.
+     * @param x			The x coordinate of the start of the text.
+     * @param y			The y coordinate of the baseline of the text, the same as for drawString().
+     */
+    public void draw(Graphics graphics, int x, int y) {
+        if (image == null) {
+            render(graphics);
+        }
+        graphics.drawImage(image, x - PADDING, y - ascent, null);
+    }
+
+    /**
+     * This draws the label in the middle of an area that starts at the left edge of the screen.
+     * 
+     * @param graphics	The Graphics object to draw with.
+     * @param areaWidth	The width of the area.
+     * @param y			The y coordinate of the baseline of the text.
+     */
+    public void drawCentered(Graphics graphics, int areaWidth, int y) {
+        if (image == null) {
+            render(graphics);
+        }
+        draw(graphics, (areaWidth - width) / 2, y);
+    }
+
+    /**
+     * This draws the text into the image.
+     * 
+     * @param graphics	The Graphics object the label is drawn with. It is used to measure the text.
+     */
+    private void render(Graphics graphics) {
+        FontMetrics metrics = graphics.getFontMetrics(font != null ? font : graphics.getFont());
+        width = metrics.stringWidth(text);
+        ascent = metrics.getMaxAscent();
+        height = metrics.getMaxAscent() + metrics.getMaxDescent();
+        image = SpriteCache.createCompatibleImage(width + 2 * PADDING, height, Transparency.TRANSLUCENT);
+        Graphics2D imageGraphics = image.createGraphics();
+        imageGraphics.setFont(metrics.getFont());
+        imageGraphics.setColor(color);
+        imageGraphics.drawString(text, PADDING, ascent);
+        imageGraphics.dispose();
+    }
+
+    /**
+     * This indicates if the label has been drawn, so that its size is known.
+     * 
+     * @return True if the label has been drawn since its text was last changed.
+     */
+    public boolean isRendered() {
+        return image != null;
+    }
+
+    /**
+     * This returns the width of the text. The label's image reaches PADDING pixels past both ends of it.
+     * It is only known once the label has been drawn.
+     * 
+     * @return The width of the text.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * This returns the distance from the top of the label to the baseline of its text. It is only known once the label has been drawn.
+     * 
+     * @return The ascent of the text.
+     */
+    public int getAscent() {
+        return ascent;
+    }
+
+    /**
+     * This returns the height of the label, from the top of its highest letter to the bottom of its lowest. 
+     * It is only known once the label has been drawn.
+     * 
+     * @return The height of the label.
+     */
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,103 @@
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This packs many small images into a few large images (pages), so the game draws from a handful of images instead 
+ * of one image per sprite and animation frame.
+ * 
+ * Images are packed as they are added, using shelves: each image is put to the right of the previous one on the current 
+ * shelf (a row as high as the highest image on it). When an image doesn't fit on the shelf, a new shelf is started below it,
+ * and when it doesn't fit below, a new page is started. The game's animation frames all have the same size, so they fill 
+ * the shelves with very little wasted space.
+ * 
+ * Images larger than a page get a page of their own.
+ */
+public class TextureAtlas {
+
+    /**
+     * This is the width and height of a page.
+     */
+    public static final int PAGE_SIZE = 1024;
+
+    /**
+     * This is the space left between images, so that scaled or filtered drawing doesn't pick up pixels of the neighbouring image.
+     */
+    private static final int PADDING = 1;
+
+    /**
+     * This stores the pages.
+     */
+    private final List<BufferedImage> pages = new ArrayList<BufferedImage>();
+
+    /**
+     * This is the page that images are added to.
+     */
+    private BufferedImage page = null;
+
+    /**
+     * This is the position where the next image goes on the current shelf.
+     */
+    private int shelfX, shelfY;
+
+    /**
+     * This is the height of the highest image on the current shelf.
+     */
+    private int shelfHeight;
+
+    /**
+     * This adds an image to the atlas, scaled to a size.
+     * 
+     * @param image		The image to add.
+     * @param width		The width the image is scaled to.
+     * @param height	The height the image is scaled to.
+     * @return The sprite that draws the image from its page.
+     */
+    public synchronized Sprite add(Image image, int width, int height) {
+        BufferedImage target;
+        int x, y;
+        if (width > PAGE_SIZE || height > PAGE_SIZE) {
+            target = SpriteCache.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+            pages.add(target);
+            x = 0;
+            y = 0;
+        } else {
+            if (page != null && shelfX + width > PAGE_SIZE) {
+                shelfX = 0;
+                shelfY += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+            if (page == null || shelfY + height > PAGE_SIZE) {
+                page = SpriteCache.createCompatibleImage(PAGE_SIZE, PAGE_SIZE, Transparency.TRANSLUCENT);
+                pages.add(page);
+                shelfX = 0;
+                shelfY = 0;
+                shelfHeight = 0;
+            }
+            target = page;
+            x = shelfX;
+            y = shelfY;
+            shelfX += width + PADDING;
+            shelfHeight = Math.max(shelfHeight, height);
+        }
+
+        Graphics2D graphics = target.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, x, y, width, height, null);
+        graphics.dispose();
+        return new Sprite(target, x, y, width, height);
+    }
+
+    /**
+     * This returns the number of pages in the atlas.
+     * 
+     * @return The number of pages.
+     */
+    public synchronized int getPageCount() {
+        return pages.size();
+    }
+}
@@ -0,0 +1,78 @@
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.VolatileImage;
+
+import javax.swing.JPanel;
+
+/**
+ * This renderer draws the game to a VolatileImage and then copies that image to the JPanel.
+ * 
+ * A VolatileImage is stored in video memory, so drawing to it and copying it to the screen is done by the graphics card 
+ * instead of the CPU. The catch is that its contents can be lost at any time (for example when the screen resolution
+ * changes or another application takes over the screen), so it has to be checked before it is drawn to and after it
+ * has been copied to the screen.
+ */
+public class VolatileImageRenderer implements Renderer {
+
+    /**
+     * This is the panel that the game is displayed in.
+     */
+    private JPanel panel;
+
+    /**
+     * This is the off-screen buffer in video memory.
+     */
+    private VolatileImage screenImage = null;
+
+    /**
+     * This indicates that the image still holds the last frame, which is not the case if it was just made or its contents were lost.
+     */
+    private boolean previousFrame = false;
+
+    @Override
+    public Component attach(JPanel panel) {
+        this.panel = panel;
+        return panel;
+    }
+
+    @Override
+    public Graphics getDrawGraphics() {
+        GraphicsConfiguration configuration = panel.getGraphicsConfiguration();
+        if (configuration == null) {
+            return null;
+        }
+
+        /**
+         * If the image can't be used with the screen anymore (or hasn't been made yet), make a new one. If its contents were
+         * lost, validate() restores the image and the whole frame is about to be drawn to it anyway.
+         */
+        int status = screenImage == null ? VolatileImage.IMAGE_INCOMPATIBLE : screenImage.validate(configuration);
+        if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+            if (screenImage != null) {
+                screenImage.flush();
+            }
+            screenImage = configuration.createCompatibleVolatileImage(panel.getPreferredSize().width, panel.getPreferredSize().height);
+        }
+        previousFrame = status == VolatileImage.IMAGE_OK;
+        return screenImage.createGraphics();
+    }
+
+    @Override
+    public boolean hasPreviousFrame() {
+        return previousFrame;
+    }
+
+    @Override
+    public boolean show() {
+        if (screenImage.contentsLost()) {
+            return false;
+        }
+        Graphics graphics = panel.getGraphics();
+        if (graphics != null) {
+            graphics.drawImage(screenImage, 0, 0, null);
+            graphics.dispose();
+        }
+        return !screenImage.contentsLost();
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * This checks that updating the game doesn't create any objects. Creating objects every update means the garbage collector
+ * has to run during the game, which causes the game to stutter.
+ * 
+ * A few games are played first so that every class is loaded and the JIT compiler has compiled the update code. Then the 
+ * bytes allocated by this thread are measured while most of a game is played, with the projectile fired and people being dunked.
+ * The check fails (and exits with status 1) if anything was allocated.
+ * 
+ * This has to be run from the directory that holds the game's images and sounds. See the Makefile in this directory.
+ */
+public class AllocationCheck {
+
+    /**
+     * The number of updates that are measured. A game at 50 updates a second lasts about 3000 updates.
+     */
+    private static final int MEASURED_TICKS = 2500;
+
+    /**
+     * This runs the check.
+     * 
+     * @param args	Not used.
+     */
+    public static void main(String [] args) {
+        HeadlessSimulation simulation = new HeadlessSimulation(HeadlessSimulation.DEFAULT_TICK_TIME);
+        InputScript script = new HeadlessSimulation.Autofire(7);
+
+        /**
+         * Warm up.
+         */
+        for (int i = 0; i < 20; i++) {
+            simulation.play(script);
+        }
+
+        GameWorld world = new GameWorld(HeadlessSimulation.DEFAULT_TICK_TIME, null);
+        world.getClock().resumeClock();
+        HeadlessSimulation.step(world, script, 10);
+
+        /**
+         * Measure how much reading the allocation counter allocates by itself, so it can be taken off the result.
+         */
+        long overhead = -GameBenchmarks.allocatedBytes() + GameBenchmarks.allocatedBytes();
+
+        long before = GameBenchmarks.allocatedBytes();
+        HeadlessSimulation.step(world, script, MEASURED_TICKS);
+        long allocated = GameBenchmarks.allocatedBytes() - before - overhead;
+
+        int score = world.getScore().getScore();
+        AudioEngine.getInstance().close();
+        System.out.println("Updates measured:  " + MEASURED_TICKS + " (score " + score + ")");
+        System.out.println("Bytes allocated:   " + allocated);
+        if (allocated > 0) {
+            System.out.println("FAILED: the game update allocated memory.");
+            System.exit(1);
+        }
+        System.out.println("OK: the game update did not allocate memory.");
+    }
+}
@@ -0,0 +1,361 @@
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the parts of the game that run every frame: the game update, a person's movement and collision test,
+ * the splash animation and drawing a whole frame.
+ * 
+ * Each benchmark is warmed up so the JIT compiler has compiled it, and then measured over several iterations. For every 
+ * benchmark this prints the average time per operation, the bytes allocated per operation and the number of garbage collections
+ * during the measurement, which is the same information JMH gives with "-prof gc". (JMH itself can't be used, because it 
+ * can't generate benchmarks for classes in the default package, which is where all of the game's classes are.)
+ * 
+ * This has to be run from the directory that holds the game's images and sounds. See the Makefile in this directory.
+ * The number of iterations and their length can be changed with -Dbench.warmup=5 -Dbench.iterations=5 -Dbench.time=1000 (milliseconds).
+ * Only the benchmarks whose names contain the first argument are run, if there is one.
+ */
+public class GameBenchmarks {
+
+    /**
+     * The number of warmup iterations.
+     */
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("bench.warmup", 5);
+
+    /**
+     * The number of measured iterations.
+     */
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+
+    /**
+     * The length of each iteration in milliseconds.
+     */
+    private static final long ITERATION_TIME = Long.getLong("bench.time", 1000L);
+
+    /**
+     * The number of operations run between checks of the time, so reading the time doesn't affect the result.
+     */
+    private static final int BATCH = 1000;
+
+    /**
+     * The number of people in the crowd that the DunkeeStore benchmark updates.
+     */
+    private static final int CROWD = 300;
+
+    /**
+     * The results of the operations are added to this so the JIT compiler can't remove the work as unused.
+     */
+    private static volatile long sink;
+
+    /**
+     * A benchmark is one operation that is run over and over.
+     */
+    private static abstract class Benchmark {
+
+        /**
+         * The name of the benchmark.
+         */
+        private final String name;
+
+        /**
+         * This creates a benchmark.
+         * 
+         * @param name	The name of the benchmark.
+         */
+        Benchmark(String name) {
+            this.name = name;
+        }
+
+        /**
+         * This runs the operation once.
+         * 
+         * @return Any value that depends on the work done, so it isn't removed by the JIT compiler.
+         */
+        abstract long run();
+    }
+
+    /**
+     * This creates all the benchmarks.
+     * 
+     * @return All the benchmarks.
+     */
+    private static List<Benchmark> createBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+        benchmarks.add(new Benchmark("GameWorld.update") {
+            private GameWorld world = newWorld();
+            private final InputScript script = new HeadlessSimulation.Autofire(10);
+
+            @Override
+            long run() {
+                if (world.isGameOver()) {
+                    world = newWorld();
+                }
+                script.apply(world.getTick(), world);
+                world.update();
+                return world.getTick();
+            }
+        });
+
+        benchmarks.add(new Benchmark("DunkeeStore.update (3 people)") {
+            private final DunkeeStore dunkees = newWorld().getDunkees();
+            private int count = 0;
+
+            @Override
+            long run() {
+                return updateDunkees(dunkees, ++count);
+            }
+        });
+
+        benchmarks.add(new Benchmark("DunkeeStore.update (" + CROWD + " people)") {
+            private final GameWorld world = newWorld();
+            private final DunkeeStore dunkees = newCrowd(world.getLevel().getTypes(), world.getPools());
+            private int count = 0;
+
+            @Override
+            long run() {
+                return updateDunkees(dunkees, ++count);
+            }
+        });
+
+        benchmarks.add(new Benchmark("InputQueue.offer+poll") {
+            private final InputQueue queue = new InputQueue(256);
+            private int count = 0;
+
+            @Override
+            long run() {
+                queue.offer(++count & 3);
+                return queue.poll();
+            }
+        });
+
+        benchmarks.add(new Benchmark("FrameMetrics.endFrame") {
+            private final FrameMetrics metrics = new FrameMetrics(TimeUnit.SECONDS.toNanos(1) / 60);
+            private long frameStart = 0;
+
+            @Override
+            long run() {
+                frameStart += TimeUnit.MILLISECONDS.toNanos(16);
+                metrics.endFrame(frameStart, 1, 300000, 2000000, 500000);
+                return metrics.getMedian(FrameMetrics.FRAME);
+            }
+        });
+
+        benchmarks.add(new Benchmark("Animation.update+getFrame") {
+            private final Animation animation = new Animation("images/Splash/splash", 10, TimeUnit.MILLISECONDS.toNanos(80));
+
+            @Override
+            long run() {
+                if (!animation.isPlaying()) {
+                    animation.playAnimation();
+                }
+                animation.update(HeadlessSimulation.DEFAULT_TICK_TIME);
+                return animation.getFrame() != null ? 1 : 0;
+            }
+        });
+
+        benchmarks.add(new Benchmark("GamePanel.gameRender") {
+            private final GamePanel panel = new GamePanel();
+            private final BufferedImage image = SpriteCache.createCompatibleImage(GameWorld.WIDTH, GameWorld.HEIGHT, Transparency.OPAQUE);
+            private final Graphics2D graphics = image.createGraphics();
+            private final InputScript script = new HeadlessSimulation.Autofire(10);
+            private long frame = 0;
+
+            @Override
+            long run() {
+
+                /**
+                 * The game is updated every few frames so that the people, the slider and the projectiles move around.
+                 */
+                if (frame++ % 3 == 0 && !panel.getWorld().isGameOver()) {
+                    script.apply(panel.getWorld().getTick(), panel.getWorld());
+                    panel.getWorld().update();
+                }
+                panel.drawGame(graphics, 0.5f);
+                return image.getRGB(0, 0);
+            }
+        });
+
+        benchmarks.add(new Benchmark("GamePanel.gameRender (dirty)") {
+            private final GamePanel panel = new GamePanel();
+            private final BufferedImage image = SpriteCache.createCompatibleImage(GameWorld.WIDTH, GameWorld.HEIGHT, Transparency.OPAQUE);
+            private final Graphics2D graphics = image.createGraphics();
+            private final InputScript script = new HeadlessSimulation.Autofire(10);
+            private long frame = 0;
+
+            @Override
+            long run() {
+
+                /**
+                 * The same as above, but the image keeps the previous frame, so only the parts that changed are drawn.
+                 */
+                if (frame % 3 == 0 && !panel.getWorld().isGameOver()) {
+                    script.apply(panel.getWorld().getTick(), panel.getWorld());
+                    panel.getWorld().update();
+                }
+                panel.drawFrame(graphics, 0.5f, frame++ > 0);
+                return image.getRGB(0, 0);
+            }
+        });
+
+        return benchmarks;
+    }
+
+    /**
+     * This creates a game and starts its clock.
+     * 
+     * @return The new game.
+     */
+    private static GameWorld newWorld() {
+        GameWorld world = new GameWorld(HeadlessSimulation.DEFAULT_TICK_TIME, null);
+        world.getClock().resumeClock();
+        return world;
+    }
+
+    /**
+     * This creates a store with a crowd of people of every kind, spread over the tanks.
+     * 
+     * @param types	The kinds of people.
+     * @param tanks	The tanks the people sink into.
+     * @return The store.
+     */
+    private static DunkeeStore newCrowd(DunkeeType [] types, Pool [] tanks) {
+        DunkeeStore dunkees = new DunkeeStore(CROWD);
+        for (int i = 0; i < CROWD; i++) {
+            Pool tank = tanks[i % tanks.length];
+            int x = tank.getXPosition() + (i / tanks.length) % 4 * 5;
+            dunkees.add(types[i % types.length], x, 60, x, 0, x - 60, 100, tank);
+        }
+        return dunkees;
+    }
+
+    /**
+     * This updates a store once. Every 50 updates everybody who is standing is dunked, so both the standing and the 
+     * dunked paths are measured.
+     * 
+     * @param dunkees	The store.
+     * @param count		The number of times the store has been updated, including this time.
+     * @return The y coordinate of the first person.
+     */
+    private static long updateDunkees(DunkeeStore dunkees, int count) {
+        if (count % 50 == 0) {
+            for (int i = 0; i < dunkees.getCount(); i++) {
+                if (dunkees.isHittable(i)) {
+                    dunkees.dunk(i);
+                }
+            }
+        }
+        dunkees.update(15, HeadlessSimulation.DEFAULT_TICK_TIME);
+        return dunkees.getYPosition(0);
+    }
+
+    /**
+     * This runs the benchmarks and prints their results.
+     * 
+     * @param args	If given, only the benchmarks whose names contain args[0] are run.
+     */
+    public static void main(String [] args) {
+        AudioEngine.getInstance().setMuted(true);
+        String filter = args.length > 0 ? args[0] : "";
+
+        System.out.println(String.format("%-28s %12s %12s %12s %8s", "Benchmark", "ns/op", "error", "B/op", "gc"));
+        for (Benchmark benchmark : createBenchmarks()) {
+            if (benchmark.name.contains(filter)) {
+                measure(benchmark);
+            }
+        }
+        AudioEngine.getInstance().close();
+    }
+
+    /**
+     * This warms up a benchmark, measures it and prints the results.
+     * 
+     * @param benchmark	The benchmark to measure.
+     */
+    private static void measure(Benchmark benchmark) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(benchmark);
+        }
+
+        double [] times = new double[ITERATIONS];
+        long operations = 0;
+        long allocated = 0;
+        long collections = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long allocatedBefore = allocatedBytes();
+            long collectionsBefore = collectionCount();
+            long start = System.nanoTime();
+            long count = iteration(benchmark);
+            long elapsed = System.nanoTime() - start;
+            allocated += allocatedBytes() - allocatedBefore;
+            collections += collectionCount() - collectionsBefore;
+            operations += count;
+            times[i] = (double) elapsed / count;
+        }
+
+        double mean = 0;
+        for (double time : times) {
+            mean += time;
+        }
+        mean /= times.length;
+        double variance = 0;
+        for (double time : times) {
+            variance += (time - mean) * (time - mean);
+        }
+        double error = times.length > 1 ? Math.sqrt(variance / (times.length - 1)) : 0;
+
+        System.out.println(String.format("%-28s %12.1f %12.1f %12.1f %8d", benchmark.name, mean, error, (double) allocated / operations, collections));
+    }
+
+    /**
+     * This runs a benchmark for one iteration.
+     * 
+     * @param benchmark	The benchmark to run.
+     * @return The number of operations that were run.
+     */
+    private static long iteration(Benchmark benchmark) {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ITERATION_TIME);
+        long operations = 0;
+        long result = 0;
+        do {
+            for (int i = 0; i < BATCH; i++) {
+                result += benchmark.run();
+            }
+            operations += BATCH;
+        } while (System.nanoTime() < end);
+        sink += result;
+        return operations;
+    }
+
+    /**
+     * This returns the number of bytes the current thread has allocated so far.
+     * 
+     * @return The number of bytes allocated by the current thread, or 0 if the JVM can't tell.
+     */
+    static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * This returns the number of garbage collections so far.
+     * 
+     * @return The number of garbage collections by all the collectors.
+     */
+    private static long collectionCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(collector.getCollectionCount(), 0);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,123 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * This checks that the people get back onto their platforms at any sink speed a level can set, not only at speeds that 
+ * are a multiple of the speed they rise at. The default level is played with other sink speeds, and after every update 
+ * each person must be between his platform and the bottom of his tank. Every person must be dunked and get back up 
+ * at least once during the game. It also checks that a level whose sink speed is too big for its people isn't loaded.
+ * The check fails (and exits with status 1) if any of this doesn't hold.
+ * 
+ * This has to be run from the directory that holds the game's images and sounds. See the Makefile in this directory.
+ */
+public class SinkSpeedCheck {
+
+    /**
+     * This is the level that is played with other sink speeds.
+     */
+    private static final String LEVEL = "levels/default" + Level.TEXT_EXTENSION;
+
+    /**
+     * These are the sink speeds that are played. None of them is a multiple of the speed the people rise at.
+     */
+    private static final int [] SINK_SPEEDS = { 1, 7, 13, 42 };
+
+    /**
+     * This is a sink speed that is more than the height of the people of the default level, so the level must not load.
+     */
+    private static final int TOO_FAST = 500;
+
+    /**
+     * This runs the check.
+     * 
+     * @param args	Not used.
+     * @throws IOException If the default level couldn't be read or the changed level couldn't be written.
+     */
+    public static void main(String [] args) throws IOException {
+        AudioEngine.getInstance().setMuted(true);
+        String text = new String(Files.readAllBytes(Paths.get(LEVEL)), StandardCharsets.UTF_8);
+        boolean failed = false;
+
+        for (int speed : SINK_SPEEDS) {
+            Level level = Level.readText(withSinkSpeed(text, speed));
+            String problem = play(level);
+            System.out.println("Sink speed " + speed + ": " + (problem == null ? "OK" : "FAILED, " + problem));
+            failed |= problem != null;
+        }
+
+        try {
+            Level.readText(withSinkSpeed(text, TOO_FAST));
+            System.out.println("Sink speed " + TOO_FAST + ": FAILED, the level was loaded");
+            failed = true;
+        } catch (IOException e) {
+            System.out.println("Sink speed " + TOO_FAST + ": OK, refused (" + e.getMessage() + ")");
+        }
+
+        AudioEngine.getInstance().close();
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * This plays a whole game and checks where the people are after every update.
+     * 
+     * @param level	The level to play.
+     * @return What went wrong, or null if nothing did.
+     */
+    private static String play(Level level) {
+        GameWorld world = new GameWorld(HeadlessSimulation.DEFAULT_TICK_TIME, null, level);
+        world.getClock().resumeClock();
+        InputScript script = new HeadlessSimulation.Autofire(7);
+        DunkeeStore dunkees = world.getDunkees();
+        boolean [] dunked = new boolean[dunkees.getCount()];
+        int [] landings = new int[dunkees.getCount()];
+
+        while (!world.isGameOver()) {
+            script.apply(world.getTick(), world);
+            world.update();
+            for (int i = 0; i < dunkees.getCount(); i++) {
+                int y = dunkees.getYPosition(i), start = level.getDunkeeY(i);
+                if (y < start) {
+                    return "person " + i + " rose to " + y + ", above his platform at " + start + ", on update " + world.getTick();
+                }
+                if (y > GameWorld.HEIGHT) {
+                    return "person " + i + " sank to " + y + " on update " + world.getTick();
+                }
+                if (dunkees.isDunked(i)) {
+                    dunked[i] = true;
+                } else if (dunked[i] && dunkees.isHittable(i)) {
+                    if (y != start) {
+                        return "person " + i + " stopped at " + y + " instead of his platform at " + start;
+                    }
+                    dunked[i] = false;
+                    landings[i]++;
+                }
+            }
+        }
+        for (int i = 0; i < landings.length; i++) {
+            if (landings[i] == 0) {
+                return "person " + i + " never got back onto his platform";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This writes a copy of a level with a different sink speed to a temporary file.
+     * 
+     * @param text	The text of the level.
+     * @param speed	The sink speed.
+     * @return The temporary file.
+     * @throws IOException If the file couldn't be written.
+     */
+    private static Path withSinkSpeed(String text, int speed) throws IOException {
+        Path file = Files.createTempFile("sink" + speed + "-", Level.TEXT_EXTENSION);
+        file.toFile().deleteOnExit();
+        Files.write(file, text.replaceFirst("(?m)^sink\\s+\\d+", "sink " + speed).getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}